@@ -2,7 +2,9 @@ plugins {
     java
     application
     id("org.springframework.boot") version "3.2.3"
+    id("org.springframework.boot.aot") version "3.2.3"
     id("io.spring.dependency-management") version "1.1.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -13,6 +15,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.3.0")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.junit.jupiter:junit-jupiter-api")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
@@ -32,6 +35,43 @@ application {
     mainClass.set("tinyledger.TinyLedgerApplication")
 }
 
+// Class data sharing only archives classes loaded from plain jars on the class path, not from the nested
+// jars inside the boot jar, so the image runs the application from this layout instead
+val cdsJar by tasks.registering(Jar::class) {
+    archiveClassifier.set("cds")
+    from(sourceSets.main.get().output)
+    from(sourceSets["aot"].output)
+    val runtimeClasspath = configurations.runtimeClasspath
+    manifest {
+        attributes("Main-Class" to application.mainClass.get())
+    }
+    doFirst {
+        manifest.attributes("Class-Path" to runtimeClasspath.get().joinToString(" ") { "lib/${it.name}" })
+    }
+}
+
+tasks.register<Sync>("cdsLayout") {
+    group = "build"
+    description = "Assembles app.jar and lib/ for running with a class data sharing archive"
+    from(cdsJar) {
+        rename { "app.jar" }
+    }
+    into("lib") {
+        from(configurations.runtimeClasspath)
+    }
+    into(layout.buildDirectory.dir("cds"))
+}
+
+jmh {
+    warmupIterations.set(3)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    fork.set(1)
+    // Every deposit stays in the in-memory history, so give iterations headroom
+    jvmArgs.set(listOf("-Xmx4g"))
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
     testLogging {
@@ -0,0 +1,71 @@
+plugins {
+    java
+    application
+}
+
+dependencies {
+    implementation("org.hdrhistogram:HdrHistogram:2.1.12")
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.15.4")
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+application {
+    mainClass.set("tinyledger.loadtest.LoadTestMain")
+}
+
+val appJar = rootProject.tasks.named<AbstractArchiveTask>("bootJar").flatMap { it.archiveFile }
+val cdsDir = rootProject.layout.buildDirectory.dir("cds")
+
+fun extraArgs(property: String): List<String> =
+    (findProperty(property) as String?)
+        ?.split(" ")
+        ?.filter { it.isNotBlank() }
+        .orEmpty()
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Starts tiny-ledger on localhost and drives an open-loop workload against it"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set(application.mainClass)
+    dependsOn(rootProject.tasks.named("bootJar"))
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "--app-jar", appJar.get().asFile.absolutePath,
+            "--output-dir", layout.buildDirectory.dir("load-test").get().asFile.absolutePath
+        ) + extraArgs("loadTestArgs")
+    })
+}
+
+tasks.register<JavaExec>("startupBenchmark") {
+    group = "verification"
+    description = "Measures startup and time to first request of tiny-ledger with and without CDS and AOT"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("tinyledger.loadtest.StartupBenchmarkMain")
+    dependsOn(rootProject.tasks.named("bootJar"), rootProject.tasks.named("cdsLayout"))
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "--app-jar", appJar.get().asFile.absolutePath,
+            "--cds-dir", cdsDir.get().asFile.absolutePath,
+            "--output-dir", layout.buildDirectory.dir("startup-benchmark").get().asFile.absolutePath
+        ) + extraArgs("startupBenchmarkArgs")
+    })
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+    testLogging {
+        events("passed", "skipped", "failed")
+    }
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
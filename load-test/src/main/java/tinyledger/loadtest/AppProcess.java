@@ -0,0 +1,113 @@
+package tinyledger.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A tiny-ledger instance started from its boot jar on a free localhost port.
+ */
+public final class AppProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final URI baseUrl;
+    private final long launchedAtNanos;
+    private Duration timeToFirstRequest;
+
+    private AppProcess(Process process, URI baseUrl, long launchedAtNanos) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.launchedAtNanos = launchedAtNanos;
+    }
+
+    public static AppProcess start(Path appJar, Path logFile, List<String> jvmArgs)
+            throws IOException, InterruptedException {
+        if (!Files.isRegularFile(appJar)) {
+            throw new IllegalArgumentException("Application jar not found: " + appJar);
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(appJar.toString());
+        command.add("--server.port=" + port);
+        command.add("--server.address=127.0.0.1");
+
+        Files.createDirectories(logFile.toAbsolutePath().getParent());
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile.toFile())
+            .start();
+        AppProcess app = new AppProcess(process, URI.create("http://127.0.0.1:" + port), launchedAt);
+        try {
+            app.awaitReady();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    public URI baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Time from launching the JVM until the first request was answered successfully.
+     */
+    public Duration timeToFirstRequest() {
+        return timeToFirstRequest;
+    }
+
+    private void awaitReady() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest probe = HttpRequest.newBuilder(baseUrl.resolve("/api/accounts"))
+            .timeout(Duration.ofSeconds(2))
+            .GET()
+            .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Application exited during startup with code " + process.exitValue());
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    timeToFirstRequest = Duration.ofNanos(System.nanoTime() - launchedAtNanos);
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            // Short enough not to blur startup measurements
+            Thread.sleep(5);
+        }
+        throw new IOException("Application did not become ready within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            process.waitFor();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package tinyledger.loadtest;
+
+public enum Endpoint {
+    CREATE_ACCOUNT("create"),
+    DEPOSIT("deposit"),
+    WITHDRAW("withdraw"),
+    TRANSFER("transfer"),
+    HISTORY("history");
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equalsIgnoreCase(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+    }
+}
@@ -0,0 +1,82 @@
+package tinyledger.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Latencies are measured from each request's intended start time, so queueing delay is included, and cover
+ * every issued request whatever its outcome. Arrivals dropped at the in-flight cap have no latency and are
+ * reported as {@code dropped}.
+ */
+public record LatencyReport(
+    String target,
+    String startedAt,
+    double targetRatePerSecond,
+    double achievedRatePerSecond,
+    long warmupSeconds,
+    long durationSeconds,
+    int accounts,
+    double zipfExponent,
+    Map<Endpoint, Integer> mix,
+    long dropped,
+    Map<Endpoint, EndpointStats> endpoints
+) {
+    public record EndpointStats(
+        long count,
+        long ok,
+        long rejected,
+        long throttled,
+        long errors,
+        long dropped,
+        double meanMillis,
+        double p50Millis,
+        double p90Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+    ) {
+        static EndpointStats of(Histogram histogram, long ok, long rejected, long throttled, long errors, long dropped) {
+            return new EndpointStats(
+                histogram.getTotalCount(),
+                ok,
+                rejected,
+                throttled,
+                errors,
+                dropped,
+                toMillis(histogram.getMean()),
+                toMillis(histogram.getValueAtPercentile(50.0)),
+                toMillis(histogram.getValueAtPercentile(90.0)),
+                toMillis(histogram.getValueAtPercentile(99.0)),
+                toMillis(histogram.getValueAtPercentile(99.9)),
+                toMillis(histogram.getMaxValue()));
+        }
+
+        private static double toMillis(double nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+    public void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(file.toFile(), this);
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format(
+            "%-15s %9s %9s %9s %9s %9s %9s %10s %10s %10s %10s%n",
+            "endpoint", "count", "rejected", "429", "errors", "dropped", "p50 ms", "p99 ms", "p999 ms", "max ms", "mean ms"));
+        endpoints.forEach((endpoint, stats) -> table.append(String.format(
+            "%-15s %9d %9d %9d %9d %9d %9.3f %10.3f %10.3f %10.3f %10.3f%n",
+            endpoint, stats.count(), stats.rejected(), stats.throttled(), stats.errors(), stats.dropped(), stats.p50Millis(),
+            stats.p99Millis(), stats.p999Millis(), stats.maxMillis(), stats.meanMillis())));
+        return table.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package tinyledger.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Thin asynchronous client for the tiny-ledger REST API. Calls complete with the HTTP status code.
+ */
+public class LedgerClient {
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LedgerClient(URI baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    public String createAccountBlocking(String name) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+            post("/api/accounts", Map.of("name", name)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Account creation failed with status " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode account = objectMapper.readTree(response.body());
+        return account.get("id").asText();
+    }
+
+    public void depositBlocking(String accountId, BigDecimal amount) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(
+            post("/api/transactions/" + accountId + "/deposit", Map.of("amount", amount, "description", "load-test seed")),
+            HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IOException("Seed deposit failed with status " + response.statusCode());
+        }
+    }
+
+    public CompletableFuture<Integer> createAccount(String name) {
+        return send(post("/api/accounts", Map.of("name", name)));
+    }
+
+    public CompletableFuture<Integer> deposit(String accountId, BigDecimal amount) {
+        return send(post("/api/transactions/" + accountId + "/deposit",
+            Map.of("amount", amount, "description", "load-test deposit")));
+    }
+
+    public CompletableFuture<Integer> withdraw(String accountId, BigDecimal amount) {
+        return send(post("/api/transactions/" + accountId + "/withdraw",
+            Map.of("amount", amount, "description", "load-test withdrawal")));
+    }
+
+    public CompletableFuture<Integer> transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        return send(post("/api/transactions/transfer", Map.of(
+            "fromAccountId", fromAccountId,
+            "toAccountId", toAccountId,
+            "amount", amount,
+            "description", "load-test transfer")));
+    }
+
+    public CompletableFuture<Integer> history(String accountId) {
+        return send(HttpRequest.newBuilder(baseUrl.resolve("/api/transactions/" + accountId))
+            .timeout(REQUEST_TIMEOUT)
+            .GET()
+            .build());
+    }
+
+    // Package-private so that tests can answer requests without a server
+    CompletableFuture<Integer> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest post(String path, Map<String, ?> body) {
+        try {
+            return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tinyledger.loadtest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public record LoadTestConfig(
+    URI targetUrl,
+    Path appJar,
+    Path outputDir,
+    Path outputFile,
+    double ratePerSecond,
+    Duration warmup,
+    Duration duration,
+    int accounts,
+    double zipfExponent,
+    BigDecimal initialDeposit,
+    WorkloadMix mix,
+    int maxInFlight,
+    long seed
+) {
+    private static final Set<String> LOCAL_HOSTS = Set.of("localhost", "127.0.0.1", "[::1]", "::1");
+
+    static final String USAGE = """
+        Usage: LoadTestMain [options]
+          --url <url>              target an already running instance (must be on localhost)
+          --app-jar <path>         start this tiny-ledger jar on a free local port (used when --url is absent)
+          --rate <n>               request arrival rate per second (default 200)
+          --warmup <seconds>       warmup before latencies are recorded (default 10)
+          --duration <seconds>     measured duration (default 60)
+          --accounts <n>           accounts created before the run (default 1000)
+          --zipf-exponent <s>      skew of account popularity, 0 means uniform (default 1.1)
+          --initial-deposit <amt>  deposit made into every seeded account (default 1000.00)
+          --mix <spec>             endpoint weights (default create=2,deposit=35,withdraw=20,transfer=25,history=18)
+          --max-in-flight <n>      outstanding requests before new arrivals are dropped (default 10000)
+          --seed <n>               random seed (default 42)
+          --output-dir <path>      directory for the JSON report (default build/load-test)
+          --output <path>          explicit JSON report path, overrides --output-dir
+        """;
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + arg);
+            }
+            options.put(arg.substring(2), args[++i]);
+        }
+
+        URI targetUrl = options.containsKey("url") ? URI.create(options.get("url")) : null;
+        Path appJar = options.containsKey("app-jar") ? Path.of(options.get("app-jar")) : null;
+        if (targetUrl == null && appJar == null) {
+            throw new IllegalArgumentException("Either --url or --app-jar must be given");
+        }
+        if (targetUrl != null && !LOCAL_HOSTS.contains(targetUrl.getHost())) {
+            throw new IllegalArgumentException("Load tests only run against localhost, got: " + targetUrl);
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+            targetUrl,
+            appJar,
+            Path.of(options.getOrDefault("output-dir", "build/load-test")),
+            options.containsKey("output") ? Path.of(options.get("output")) : null,
+            Double.parseDouble(options.getOrDefault("rate", "200")),
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+            Integer.parseInt(options.getOrDefault("accounts", "1000")),
+            Double.parseDouble(options.getOrDefault("zipf-exponent", "1.1")),
+            new BigDecimal(options.getOrDefault("initial-deposit", "1000.00")),
+            WorkloadMix.parse(options.getOrDefault("mix", "create=2,deposit=35,withdraw=20,transfer=25,history=18")),
+            Integer.parseInt(options.getOrDefault("max-in-flight", "10000")),
+            Long.parseLong(options.getOrDefault("seed", "42")));
+
+        if (config.ratePerSecond() <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (config.accounts() < 2) {
+            throw new IllegalArgumentException("At least two accounts are needed for transfers");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,85 @@
+package tinyledger.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LoadTestMain {
+    private static final DateTimeFormatter REPORT_NAME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Instant startedAt = Instant.now();
+        Path reportFile = config.outputFile() != null
+            ? config.outputFile()
+            : config.outputDir().resolve("load-test-" + REPORT_NAME_FORMAT.format(startedAt) + ".json");
+
+        if (config.targetUrl() != null) {
+            run(config, config.targetUrl(), startedAt, reportFile);
+        } else {
+            Path logFile = reportFile.resolveSibling("tiny-ledger-" + REPORT_NAME_FORMAT.format(startedAt) + ".log");
+            System.out.println("Starting " + config.appJar() + " (log: " + logFile + ")");
+            try (AppProcess app = AppProcess.start(config.appJar(), logFile, List.of())) {
+                run(config, app.baseUrl(), startedAt, reportFile);
+            }
+        }
+    }
+
+    private static void run(LoadTestConfig config, URI baseUrl, Instant startedAt, Path reportFile)
+            throws IOException, InterruptedException {
+        LedgerClient client = new LedgerClient(baseUrl);
+
+        System.out.println("Seeding " + config.accounts() + " accounts on " + baseUrl);
+        List<String> accountIds = new ArrayList<>(config.accounts());
+        for (int i = 0; i < config.accounts(); i++) {
+            String accountId = client.createAccountBlocking("load-test-" + i);
+            if (config.initialDeposit().signum() > 0) {
+                client.depositBlocking(accountId, config.initialDeposit());
+            }
+            accountIds.add(accountId);
+        }
+
+        System.out.printf("Driving %.1f req/s for %ds after %ds warmup%n",
+            config.ratePerSecond(), config.duration().toSeconds(), config.warmup().toSeconds());
+        OpenLoopDriver.Result result = new OpenLoopDriver(config, client, accountIds).run();
+
+        LatencyReport report = new LatencyReport(
+            baseUrl.toString(),
+            startedAt.toString(),
+            config.ratePerSecond(),
+            result.achievedRatePerSecond(),
+            config.warmup().toSeconds(),
+            config.duration().toSeconds(),
+            config.accounts(),
+            config.zipfExponent(),
+            config.mix().weights(),
+            result.dropped(),
+            result.endpoints());
+        report.writeTo(reportFile);
+
+        System.out.print(report.toTable());
+        if (result.dropped() > 0) {
+            System.out.printf("Dropped arrivals (max in-flight reached): %d (%.2f%% of arrivals)%n",
+                result.dropped(), 100.0 * result.dropped() / (result.issued() + result.dropped()));
+        }
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+}
@@ -0,0 +1,167 @@
+package tinyledger.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests on a fixed arrival schedule regardless of how fast responses come back.
+ * A slow server therefore shows up as growing latency rather than as a lower request rate
+ * (no coordinated omission). Failed and timed-out requests are recorded at the latency the
+ * caller saw before giving up; arrivals dropped at the in-flight cap never got an answer and
+ * are counted per endpoint as saturation instead.
+ */
+public final class OpenLoopDriver {
+    // Long enough for every outstanding request to either complete or time out
+    private static final long DRAIN_TIMEOUT_NANOS = LedgerClient.REQUEST_TIMEOUT.plusSeconds(5).toNanos();
+
+    private final LoadTestConfig config;
+    private final LedgerClient client;
+    private final List<String> accountIds;
+    private final ZipfSampler accountSampler;
+    private final SplittableRandom random;
+    private final Map<Endpoint, EndpointRecorder> recorders = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public OpenLoopDriver(LoadTestConfig config, LedgerClient client, List<String> accountIds) {
+        this.config = config;
+        this.client = client;
+        this.accountIds = List.copyOf(accountIds);
+        this.accountSampler = new ZipfSampler(accountIds.size(), config.zipfExponent());
+        this.random = new SplittableRandom(config.seed());
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new EndpointRecorder());
+        }
+    }
+
+    public Result run() throws InterruptedException {
+        long intervalNanos = Math.max(1, Math.round(1_000_000_000.0 / config.ratePerSecond()));
+        long start = System.nanoTime();
+        long measureStart = start + config.warmup().toNanos();
+        long end = measureStart + config.duration().toNanos();
+        long issued = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            waitUntil(intended);
+            boolean measured = intended >= measureStart;
+            Endpoint endpoint = config.mix().next(random);
+            if (inFlight.get() >= config.maxInFlight()) {
+                if (measured) {
+                    dropped.incrementAndGet();
+                    recorders.get(endpoint).dropped.increment();
+                }
+                continue;
+            }
+            if (measured) {
+                issued++;
+            }
+            issue(endpoint, intended, measured);
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+
+        Map<Endpoint, LatencyReport.EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        recorders.forEach((endpoint, recorder) -> {
+            if (recorder.histogram.getTotalCount() > 0 || recorder.dropped.sum() > 0) {
+                stats.put(endpoint, recorder.toStats());
+            }
+        });
+        double achievedRate = issued / (config.duration().toNanos() / 1_000_000_000.0);
+        return new Result(stats, issued, dropped.get(), achievedRate);
+    }
+
+    private void issue(Endpoint endpoint, long intendedStart, boolean measured) {
+        CompletableFuture<Integer> call = switch (endpoint) {
+            case CREATE_ACCOUNT -> client.createAccount("load-test-" + random.nextInt(1_000_000));
+            case DEPOSIT -> client.deposit(hotAccount(), amount(100));
+            case WITHDRAW -> client.withdraw(hotAccount(), amount(50));
+            case TRANSFER -> {
+                String from = hotAccount();
+                String to = hotAccount();
+                while (to.equals(from)) {
+                    to = accountIds.get(random.nextInt(accountIds.size()));
+                }
+                yield client.transfer(from, to, amount(50));
+            }
+            case HISTORY -> client.history(hotAccount());
+        };
+        inFlight.incrementAndGet();
+        EndpointRecorder recorder = recorders.get(endpoint);
+        call.whenComplete((status, error) -> {
+            // Record before releasing the slot, so a drained run never misses the last completions
+            if (measured) {
+                recorder.record(System.nanoTime() - intendedStart, status, error);
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private String hotAccount() {
+        return accountIds.get(accountSampler.next(random));
+    }
+
+    private BigDecimal amount(int max) {
+        return BigDecimal.valueOf(100 + random.nextInt(max * 100 - 99), 2);
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    public record Result(Map<Endpoint, LatencyReport.EndpointStats> endpoints, long issued, long dropped,
+                         double achievedRatePerSecond) {
+    }
+
+    private static final class EndpointRecorder {
+        private final Histogram histogram = new ConcurrentHistogram(3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void record(long latencyNanos, Integer status, Throwable error) {
+            // Timeouts and connection failures included: the caller waited this long for nothing
+            histogram.recordValue(latencyNanos);
+            if (error != null) {
+                errors.increment();
+            } else if (status >= 200 && status < 300) {
+                ok.increment();
+            } else if (status == 400) {
+                // insufficient funds and similar business rejections
+                rejected.increment();
+            } else if (status == 429) {
+                // shed by admission control
+                throttled.increment();
+            } else {
+                errors.increment();
+            }
+        }
+
+        LatencyReport.EndpointStats toStats() {
+            return LatencyReport.EndpointStats.of(histogram, ok.sum(), rejected.sum(), throttled.sum(), errors.sum(),
+                dropped.sum());
+        }
+    }
+}
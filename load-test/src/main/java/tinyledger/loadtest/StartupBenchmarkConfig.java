@@ -0,0 +1,93 @@
+package tinyledger.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public record StartupBenchmarkConfig(
+    Path appJar,
+    Path cdsDir,
+    Path outputDir,
+    List<StartupVariant> variants,
+    List<Integer> ledgerSizes,
+    int runs,
+    int accounts,
+    int concurrency
+) {
+    static final String USAGE = """
+        Usage: StartupBenchmarkMain [options]
+          --app-jar <path>         tiny-ledger boot jar, used by the boot-jar variant
+          --cds-dir <path>         output of the cdsLayout task (app.jar + lib/), used by the cds variants
+          --variants <list>        comma-separated, any of boot-jar,cds,cds-aot (default: all available)
+          --ledger-sizes <list>    transactions restored after startup, comma-separated (default 0,10000)
+          --runs <n>               starts per variant and ledger size (default 5)
+          --accounts <n>           accounts the restored transactions are spread over (default 100)
+          --concurrency <n>        requests in flight while restoring (default 32)
+          --output-dir <path>      directory for logs, archives and the JSON report (default build/startup-benchmark)
+        """;
+
+    public static StartupBenchmarkConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + arg);
+            }
+            options.put(arg.substring(2), args[++i]);
+        }
+
+        Path appJar = options.containsKey("app-jar") ? Path.of(options.get("app-jar")) : null;
+        Path cdsDir = options.containsKey("cds-dir") ? Path.of(options.get("cds-dir")) : null;
+
+        List<StartupVariant> variants = new ArrayList<>();
+        if (options.containsKey("variants")) {
+            for (String key : options.get("variants").split(",")) {
+                variants.add(StartupVariant.fromKey(key.trim()));
+            }
+        } else {
+            for (StartupVariant variant : StartupVariant.values()) {
+                if (variant.usesCds() ? cdsDir != null : appJar != null) {
+                    variants.add(variant);
+                }
+            }
+        }
+        if (variants.isEmpty()) {
+            throw new IllegalArgumentException("Either --app-jar or --cds-dir must be given");
+        }
+        for (StartupVariant variant : variants) {
+            if (variant.usesCds() ? cdsDir == null : appJar == null) {
+                throw new IllegalArgumentException("Variant " + variant.key() + " needs "
+                    + (variant.usesCds() ? "--cds-dir" : "--app-jar"));
+            }
+        }
+
+        List<Integer> ledgerSizes = new ArrayList<>();
+        for (String size : options.getOrDefault("ledger-sizes", "0,10000").split(",")) {
+            int transactions = Integer.parseInt(size.trim());
+            if (transactions < 0) {
+                throw new IllegalArgumentException("Ledger sizes cannot be negative");
+            }
+            ledgerSizes.add(transactions);
+        }
+
+        StartupBenchmarkConfig config = new StartupBenchmarkConfig(
+            appJar,
+            cdsDir,
+            Path.of(options.getOrDefault("output-dir", "build/startup-benchmark")),
+            List.copyOf(variants),
+            List.copyOf(ledgerSizes),
+            Integer.parseInt(options.getOrDefault("runs", "5")),
+            Integer.parseInt(options.getOrDefault("accounts", "100")),
+            Integer.parseInt(options.getOrDefault("concurrency", "32")));
+
+        if (config.runs() < 1) {
+            throw new IllegalArgumentException("At least one run is needed");
+        }
+        if (config.accounts() < 1 || config.concurrency() < 1) {
+            throw new IllegalArgumentException("Accounts and concurrency must be positive");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,159 @@
+package tinyledger.loadtest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts tiny-ledger repeatedly in each variant and measures time to first request, then how long restoring a
+ * ledger of the given size through the API takes, since a new replica is not useful before that.
+ */
+public final class StartupBenchmarkMain {
+    private static final DateTimeFormatter REPORT_NAME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final Pattern STARTED_LINE = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+    private static final BigDecimal RESTORE_AMOUNT = new BigDecimal("10.00");
+    private static final long TRAINING_TIMEOUT_MINUTES = 5;
+
+    private StartupBenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmarkConfig config;
+        try {
+            config = StartupBenchmarkConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(StartupBenchmarkConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Instant startedAt = Instant.now();
+        String timestamp = REPORT_NAME_FORMAT.format(startedAt);
+        Path runDir = config.outputDir().resolve(timestamp);
+        List<StartupReport.Measurement> measurements = new ArrayList<>();
+
+        for (StartupVariant variant : config.variants()) {
+            Path archive = runDir.resolve(variant.key() + ".jsa");
+            if (variant.usesCds()) {
+                System.out.println("Training CDS archive for " + variant.key());
+                train(variant, variant.jar(config), archive, runDir.resolve(variant.key() + "-training.log"));
+            }
+            for (int ledgerSize : config.ledgerSizes()) {
+                for (int run = 1; run <= config.runs(); run++) {
+                    Path logFile = runDir.resolve(variant.key() + "-" + ledgerSize + "-" + run + ".log");
+                    StartupReport.Measurement measurement;
+                    try (AppProcess app = AppProcess.start(variant.jar(config), logFile, variant.jvmArgs(archive))) {
+                        long restoreNanos = restore(new LedgerClient(app.baseUrl()), ledgerSize, config);
+                        measurement = new StartupReport.Measurement(
+                            variant.key(),
+                            ledgerSize,
+                            run,
+                            app.timeToFirstRequest().toNanos() / 1_000_000.0,
+                            reportedStartupMillis(logFile),
+                            restoreNanos / 1_000_000.0);
+                    }
+                    measurements.add(measurement);
+                    System.out.printf("%-10s ledger=%d run=%d first request %.1f ms, restore %.1f ms%n",
+                        variant.key(), ledgerSize, run, measurement.timeToFirstRequestMillis(), measurement.restoreMillis());
+                }
+            }
+        }
+
+        StartupReport report = StartupReport.of(startedAt.toString(), config.runs(), measurements);
+        Path reportFile = config.outputDir().resolve("startup-" + timestamp + ".json");
+        report.writeTo(reportFile);
+        System.out.print(report.toTable());
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static void train(StartupVariant variant, Path jar, Path archive, Path logFile)
+            throws IOException, InterruptedException {
+        Files.createDirectories(archive.toAbsolutePath().getParent());
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(variant.trainingJvmArgs(archive));
+        command.add("-jar");
+        command.add(jar.toString());
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile.toFile())
+            .start();
+        if (!process.waitFor(TRAINING_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IOException("Training run did not finish, see " + logFile);
+        }
+        if (!Files.isRegularFile(archive)) {
+            throw new IOException("Training run exited with code " + process.exitValue()
+                + " without writing " + archive + ", see " + logFile);
+        }
+    }
+
+    /**
+     * Replays {@code transactions} deposits spread over the configured accounts and returns the elapsed nanos.
+     * Requests rejected by admission control are retried.
+     */
+    private static long restore(LedgerClient client, int transactions, StartupBenchmarkConfig config)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        if (transactions == 0) {
+            return 0;
+        }
+        List<String> accountIds = new ArrayList<>();
+        for (int i = 0; i < Math.min(config.accounts(), transactions); i++) {
+            accountIds.add(client.createAccountBlocking("restore-" + i));
+        }
+
+        Semaphore inFlight = new Semaphore(config.concurrency());
+        CountDownLatch done = new CountDownLatch(transactions);
+        AtomicReference<String> failure = new AtomicReference<>();
+        for (int i = 0; i < transactions && failure.get() == null; i++) {
+            inFlight.acquire();
+            deposit(client, accountIds.get(i % accountIds.size()), inFlight, done, failure);
+        }
+        if (failure.get() == null) {
+            done.await();
+        }
+        if (failure.get() != null) {
+            throw new IOException("Restore failed: " + failure.get());
+        }
+        return System.nanoTime() - started;
+    }
+
+    private static void deposit(LedgerClient client, String accountId, Semaphore inFlight, CountDownLatch done,
+                                AtomicReference<String> failure) {
+        client.deposit(accountId, RESTORE_AMOUNT).whenComplete((status, error) -> {
+            if (error == null && status == 429) {
+                CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS)
+                    .execute(() -> deposit(client, accountId, inFlight, done, failure));
+                return;
+            }
+            if (error != null) {
+                failure.compareAndSet(null, error.toString());
+            } else if (status != 200) {
+                failure.compareAndSet(null, "deposit returned status " + status);
+            }
+            inFlight.release();
+            done.countDown();
+        });
+    }
+
+    private static double reportedStartupMillis(Path logFile) throws IOException {
+        Matcher matcher = STARTED_LINE.matcher(Files.readString(logFile));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) * 1_000 : -1;
+    }
+}
@@ -0,0 +1,98 @@
+package tinyledger.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time to first request is measured from launching the JVM; ready time adds restoring the ledger.
+ */
+public record StartupReport(
+    String startedAt,
+    String javaVersion,
+    int runs,
+    List<Measurement> measurements,
+    List<Summary> summaries
+) {
+    public record Measurement(
+        String variant,
+        int ledgerTransactions,
+        int run,
+        double timeToFirstRequestMillis,
+        // As logged by Spring Boot, -1 if the line was not found
+        double reportedStartupMillis,
+        double restoreMillis
+    ) {
+        public double readyMillis() {
+            return timeToFirstRequestMillis + restoreMillis;
+        }
+    }
+
+    public record Summary(
+        String variant,
+        int ledgerTransactions,
+        double medianTimeToFirstRequestMillis,
+        double minTimeToFirstRequestMillis,
+        double maxTimeToFirstRequestMillis,
+        double medianRestoreMillis,
+        double medianReadyMillis
+    ) {
+    }
+
+    public static StartupReport of(String startedAt, int runs, List<Measurement> measurements) {
+        Map<String, List<Measurement>> groups = new LinkedHashMap<>();
+        for (Measurement measurement : measurements) {
+            groups.computeIfAbsent(measurement.variant() + "/" + measurement.ledgerTransactions(), key -> new ArrayList<>())
+                .add(measurement);
+        }
+        List<Summary> summaries = new ArrayList<>(groups.size());
+        for (List<Measurement> group : groups.values()) {
+            double[] timeToFirstRequest = group.stream().mapToDouble(Measurement::timeToFirstRequestMillis).sorted().toArray();
+            summaries.add(new Summary(
+                group.get(0).variant(),
+                group.get(0).ledgerTransactions(),
+                median(timeToFirstRequest),
+                timeToFirstRequest[0],
+                timeToFirstRequest[timeToFirstRequest.length - 1],
+                median(group.stream().mapToDouble(Measurement::restoreMillis).sorted().toArray()),
+                median(group.stream().mapToDouble(Measurement::readyMillis).sorted().toArray())));
+        }
+        return new StartupReport(startedAt, Runtime.version().toString(), runs, List.copyOf(measurements), summaries);
+    }
+
+    public void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(file.toFile(), this);
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format(
+            "%-10s %12s %12s %12s %12s %12s %12s%n",
+            "variant", "ledger txs", "first req", "min", "max", "restore", "ready"));
+        for (Summary summary : summaries) {
+            table.append(String.format("%-10s %12d %12.1f %12.1f %12.1f %12.1f %12.1f%n",
+                summary.variant(), summary.ledgerTransactions(), summary.medianTimeToFirstRequestMillis(),
+                summary.minTimeToFirstRequestMillis(), summary.maxTimeToFirstRequestMillis(),
+                summary.medianRestoreMillis(), summary.medianReadyMillis()));
+        }
+        table.append("(milliseconds, medians over ").append(runs).append(" runs unless min/max)").append(System.lineSeparator());
+        return table.toString();
+    }
+
+    static double median(double[] sorted) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,73 @@
+package tinyledger.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ways of launching tiny-ledger whose startup is compared.
+ */
+public enum StartupVariant {
+    BOOT_JAR("boot-jar", false, false),
+    CDS("cds", true, false),
+    CDS_AOT("cds-aot", true, true);
+
+    private final String key;
+    private final boolean usesCds;
+    private final boolean usesAot;
+
+    StartupVariant(String key, boolean usesCds, boolean usesAot) {
+        this.key = key;
+        this.usesCds = usesCds;
+        this.usesAot = usesAot;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public boolean usesCds() {
+        return usesCds;
+    }
+
+    public Path jar(StartupBenchmarkConfig config) {
+        return usesCds ? config.cdsDir().resolve("app.jar") : config.appJar();
+    }
+
+    /**
+     * JVM flags for a measured start; {@code archive} is the CDS archive, ignored unless the variant uses CDS.
+     */
+    public List<String> jvmArgs(Path archive) {
+        List<String> args = new ArrayList<>();
+        if (usesCds) {
+            args.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (usesAot) {
+            args.add("-Dspring.aot.enabled=true");
+        }
+        return args;
+    }
+
+    /**
+     * JVM flags for the training run that writes {@code archive}. They must match {@link #jvmArgs} apart
+     * from the archive flag, or the JVM refuses the archive.
+     */
+    public List<String> trainingJvmArgs(Path archive) {
+        List<String> args = new ArrayList<>();
+        args.add("-XX:ArchiveClassesAtExit=" + archive);
+        if (usesAot) {
+            args.add("-Dspring.aot.enabled=true");
+        }
+        args.add("-Dspring.context.exit=onRefresh");
+        return args;
+    }
+
+    public static StartupVariant fromKey(String key) {
+        for (StartupVariant variant : values()) {
+            if (variant.key.equals(key)) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown startup variant: " + key);
+    }
+}
@@ -0,0 +1,64 @@
+package tinyledger.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice of which endpoint the next request hits, e.g. {@code create=2,deposit=35,transfer=25}.
+ */
+public final class WorkloadMix {
+    private final Endpoint[] endpoints;
+    private final double[] cumulativeWeights;
+    private final Map<Endpoint, Integer> weights;
+
+    private WorkloadMix(Map<Endpoint, Integer> weights) {
+        this.weights = Map.copyOf(weights);
+        this.endpoints = weights.keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new double[endpoints.length];
+        double total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Workload mix must have at least one positive weight");
+        }
+        double running = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            running += weights.get(endpoints[i]);
+            cumulativeWeights[i] = running / total;
+        }
+    }
+
+    public static WorkloadMix parse(String spec) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] keyValue = part.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid workload mix entry: " + part);
+            }
+            int weight = Integer.parseInt(keyValue[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Workload mix weight cannot be negative: " + part);
+            }
+            if (weight > 0) {
+                weights.put(Endpoint.fromKey(keyValue[0].trim()), weight);
+            }
+        }
+        return new WorkloadMix(weights);
+    }
+
+    public Endpoint next(RandomGenerator random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (u < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    public Map<Endpoint, Integer> weights() {
+        return weights;
+    }
+}
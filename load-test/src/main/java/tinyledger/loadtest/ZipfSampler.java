@@ -0,0 +1,46 @@
+package tinyledger.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks in {@code [0, size)} with probability proportional to {@code 1 / (rank + 1)^exponent},
+ * so a handful of accounts receive most of the traffic.
+ */
+public final class ZipfSampler {
+    private final double[] cdf;
+
+    public ZipfSampler(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Zipf size must be positive");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent cannot be negative");
+        }
+        cdf = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    public int next(RandomGenerator random) {
+        return sample(random.nextDouble());
+    }
+
+    int sample(double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1);
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+}
@@ -0,0 +1,54 @@
+package tinyledger.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyReportTest {
+
+    @Test
+    void endpointStats_ShouldReportPercentilesInMillis() {
+        // Given
+        Histogram histogram = new Histogram(3);
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.recordValue(millis * 1_000_000L);
+        }
+
+        // When
+        LatencyReport.EndpointStats stats = LatencyReport.EndpointStats.of(histogram, 90, 4, 3, 3, 7);
+
+        // Then
+        assertEquals(100, stats.count());
+        assertEquals(90, stats.ok());
+        assertEquals(3, stats.errors());
+        assertEquals(7, stats.dropped());
+        assertEquals(50.5, stats.meanMillis(), 0.1);
+        assertEquals(50.0, stats.p50Millis(), 0.1);
+        assertEquals(90.0, stats.p90Millis(), 0.1);
+        assertEquals(99.0, stats.p99Millis(), 0.1);
+        assertEquals(100.0, stats.maxMillis(), 0.1);
+    }
+
+    @Test
+    void toTable_ShouldListEveryEndpointWithItsCounts() {
+        // Given
+        Histogram histogram = new Histogram(3);
+        histogram.recordValue(2_000_000L);
+        Map<Endpoint, LatencyReport.EndpointStats> endpoints = new EnumMap<>(Endpoint.class);
+        endpoints.put(Endpoint.DEPOSIT, LatencyReport.EndpointStats.of(histogram, 0, 0, 0, 1, 5));
+        LatencyReport report = new LatencyReport("http://localhost:8080", "2024-01-01T00:00:00Z", 100, 95, 0, 1, 2,
+            1.1, Map.of(Endpoint.DEPOSIT, 1), 5, endpoints);
+
+        // When
+        String[] lines = report.toTable().split("\n");
+
+        // Then
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("endpoint"));
+        assertTrue(lines[1].matches("DEPOSIT\\s+1\\s+0\\s+0\\s+1\\s+5\\s+2\\.000\\s.*"), lines[1]);
+    }
+}
@@ -0,0 +1,151 @@
+package tinyledger.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenLoopDriverTest {
+    // 1000 arrivals per second for 200 ms, so every run schedules exactly 200 arrivals
+    private static final double RATE = 1000;
+    private static final Duration DURATION = Duration.ofMillis(200);
+    private static final int ARRIVALS = 200;
+
+    @Test
+    void run_WithMixedOutcomes_ShouldCountEveryIssuedRequestOnce() throws Exception {
+        // Given
+        FakeLedgerClient client = new FakeLedgerClient(endpoint -> switch (endpoint) {
+            case CREATE_ACCOUNT -> CompletableFuture.completedFuture(200);
+            case TRANSFER -> CompletableFuture.completedFuture(400);
+            case WITHDRAW -> CompletableFuture.completedFuture(429);
+            case HISTORY -> CompletableFuture.completedFuture(500);
+            case DEPOSIT -> timeoutAfter(20);
+        });
+        OpenLoopDriver driver = new OpenLoopDriver(
+            config("create=1,deposit=1,withdraw=1,transfer=1,history=1", 10_000), client, List.of("acc-1", "acc-2"));
+
+        // When
+        OpenLoopDriver.Result result = driver.run();
+
+        // Then
+        assertEquals(ARRIVALS, result.issued());
+        assertEquals(0, result.dropped());
+        assertEquals(ARRIVALS, result.endpoints().values().stream().mapToLong(LatencyReport.EndpointStats::count).sum());
+        LatencyReport.EndpointStats create = result.endpoints().get(Endpoint.CREATE_ACCOUNT);
+        assertEquals(create.count(), create.ok());
+        LatencyReport.EndpointStats transfer = result.endpoints().get(Endpoint.TRANSFER);
+        assertEquals(transfer.count(), transfer.rejected());
+        LatencyReport.EndpointStats withdraw = result.endpoints().get(Endpoint.WITHDRAW);
+        assertEquals(withdraw.count(), withdraw.throttled());
+        LatencyReport.EndpointStats history = result.endpoints().get(Endpoint.HISTORY);
+        assertEquals(history.count(), history.errors());
+        LatencyReport.EndpointStats deposit = result.endpoints().get(Endpoint.DEPOSIT);
+        assertEquals(deposit.count(), deposit.errors());
+        assertEquals(0, deposit.ok() + deposit.rejected() + deposit.throttled());
+        // Timed-out requests are recorded at the latency the caller waited, not left out
+        assertTrue(deposit.p50Millis() >= 20, "p50 was " + deposit.p50Millis());
+    }
+
+    @Test
+    void run_WithStalledCaller_ShouldMeasureFromIntendedStart() throws Exception {
+        // Given
+        AtomicBoolean stalled = new AtomicBoolean();
+        FakeLedgerClient client = new FakeLedgerClient(endpoint -> {
+            // The first call holds up the driver for 50 ms, like a client blocked on a full connection pool
+            if (stalled.compareAndSet(false, true)) {
+                sleep(50);
+            }
+            return CompletableFuture.completedFuture(200);
+        });
+        OpenLoopDriver driver = new OpenLoopDriver(config("deposit=1", 10_000), client, List.of("acc-1", "acc-2"));
+
+        // When
+        OpenLoopDriver.Result result = driver.run();
+
+        // Then
+        LatencyReport.EndpointStats deposit = result.endpoints().get(Endpoint.DEPOSIT);
+        assertEquals(ARRIVALS, deposit.count());
+        assertEquals(ARRIVALS, deposit.ok());
+        // The ~50 arrivals scheduled during the stall waited 50 ms down to 0 ms for their turn; measured from the
+        // actual send, they would all look instant and only the first request would show the stall
+        assertTrue(deposit.maxMillis() >= 50, "max was " + deposit.maxMillis());
+        assertTrue(deposit.p90Millis() >= 25, "p90 was " + deposit.p90Millis());
+    }
+
+    @Test
+    void run_AtInFlightCap_ShouldDropArrivalsAndRecordTimeouts() throws Exception {
+        // Given
+        FakeLedgerClient client = new FakeLedgerClient(endpoint -> timeoutAfter(50));
+        OpenLoopDriver driver = new OpenLoopDriver(config("deposit=1", 1), client, List.of("acc-1", "acc-2"));
+
+        // When
+        OpenLoopDriver.Result result = driver.run();
+
+        // Then
+        LatencyReport.EndpointStats deposit = result.endpoints().get(Endpoint.DEPOSIT);
+        assertEquals(ARRIVALS, result.issued() + result.dropped());
+        assertTrue(result.issued() >= 1 && result.dropped() > 0);
+        assertEquals(result.dropped(), deposit.dropped());
+        assertEquals(result.issued(), deposit.count());
+        assertEquals(deposit.count(), deposit.errors());
+        assertTrue(deposit.p50Millis() >= 50, "p50 was " + deposit.p50Millis());
+    }
+
+    private static LoadTestConfig config(String mix, int maxInFlight) {
+        return new LoadTestConfig(URI.create("http://localhost:8080"), null, null, null, RATE, Duration.ZERO,
+            DURATION, 2, 1.1, new BigDecimal("1000.00"), WorkloadMix.parse(mix), maxInFlight, 42);
+    }
+
+    private static CompletableFuture<Integer> timeoutAfter(long millis) {
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS))
+            .thenCompose(ignored -> CompletableFuture.failedFuture(new HttpTimeoutException("request timed out")));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Answers each request from {@code responses} by the endpoint it targets, without a server.
+     */
+    private static final class FakeLedgerClient extends LedgerClient {
+        private final Function<Endpoint, CompletableFuture<Integer>> responses;
+
+        FakeLedgerClient(Function<Endpoint, CompletableFuture<Integer>> responses) {
+            super(URI.create("http://localhost:8080"));
+            this.responses = responses;
+        }
+
+        @Override
+        CompletableFuture<Integer> send(HttpRequest request) {
+            String path = request.uri().getPath();
+            Endpoint endpoint;
+            if (request.method().equals("GET")) {
+                endpoint = Endpoint.HISTORY;
+            } else if (path.equals("/api/accounts")) {
+                endpoint = Endpoint.CREATE_ACCOUNT;
+            } else if (path.endsWith("/deposit")) {
+                endpoint = Endpoint.DEPOSIT;
+            } else if (path.endsWith("/withdraw")) {
+                endpoint = Endpoint.WITHDRAW;
+            } else {
+                endpoint = Endpoint.TRANSFER;
+            }
+            return responses.apply(endpoint);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package tinyledger.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfSamplerTest {
+
+    @Test
+    void next_ShouldStayWithinBounds() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(10, 1.1);
+        SplittableRandom random = new SplittableRandom(1);
+
+        // When/Then
+        for (int i = 0; i < 10_000; i++) {
+            int rank = sampler.next(random);
+            assertTrue(rank >= 0 && rank < 10);
+        }
+        assertEquals(0, sampler.sample(0.0));
+        assertEquals(9, sampler.sample(1.0));
+    }
+
+    @Test
+    void next_ShouldFavourLowRanks() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(1000, 1.1);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[1000];
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.next(random)]++;
+        }
+
+        // Then
+        assertTrue(counts[0] > counts[1]);
+        assertTrue(counts[1] > counts[100]);
+        assertTrue(counts[0] > 100_000 / 20);
+    }
+
+    @Test
+    void zeroExponent_ShouldBeUniform() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(4, 0.0);
+
+        // When/Then
+        assertEquals(0, sampler.sample(0.10));
+        assertEquals(1, sampler.sample(0.30));
+        assertEquals(2, sampler.sample(0.60));
+        assertEquals(3, sampler.sample(0.90));
+    }
+
+    @Test
+    void constructor_WithNonPositiveSize_ShouldThrowException() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+    }
+}
@@ -1,7 +1,9 @@
 rootProject.name = "tiny-ledger"
 
+include("load-test")
+
 dependencyResolutionManagement {
     repositories {
         mavenCentral()
     }
-} 
\ No newline at end of file
+} 
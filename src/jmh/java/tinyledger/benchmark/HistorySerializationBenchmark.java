@@ -0,0 +1,68 @@
+package tinyledger.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tinyledger.json.WireEncoder;
+import tinyledger.json.WireFormat;
+import tinyledger.model.Transaction;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a page of transaction history into a response body: Jackson on every request versus the cached
+ * encodings of {@link WireEncoder}, in both wire formats. Run with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class HistorySerializationBenchmark {
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private WireEncoder wireEncoder;
+    private List<Transaction> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        wireEncoder = new WireEncoder(objectMapper, new SimpleMeterRegistry(), 65536);
+        page = new ArrayList<>(pageSize);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(new Transaction(UUID.randomUUID().toString(), "collector", new BigDecimal("12.34").add(BigDecimal.valueOf(i)),
+                i % 2 == 0 ? Transaction.TransactionType.DEPOSIT : Transaction.TransactionType.WITHDRAWAL,
+                "Payment " + i, start.plusMinutes(i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] jackson() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cachedStandard() {
+        return wireEncoder.encodeAll(page, WireFormat.STANDARD);
+    }
+
+    @Benchmark
+    public byte[] cachedCompact() {
+        return wireEncoder.encodeAll(page, WireFormat.COMPACT);
+    }
+}
@@ -0,0 +1,79 @@
+package tinyledger.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import tinyledger.model.Transaction;
+import tinyledger.service.LedgerService;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput on a single hot account as the number of depositing threads grows, for a regular
+ * account (one lock) and a high-contention account (striped balance and history). Run with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class HotAccountDepositBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+    private LedgerService ledgerService;
+    private String regularAccountId;
+    private String stripedAccountId;
+
+    // A fresh ledger per iteration keeps the history that deposits accumulate from skewing later iterations
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ledgerService = new LedgerService();
+        regularAccountId = ledgerService.createAccount("Regular collector").id();
+        stripedAccountId = ledgerService.createAccount("Striped collector", true).id();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction regular_1Thread() {
+        return deposit(regularAccountId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction regular_4Threads() {
+        return deposit(regularAccountId);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Transaction regular_16Threads() {
+        return deposit(regularAccountId);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction striped_1Thread() {
+        return deposit(stripedAccountId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction striped_4Threads() {
+        return deposit(stripedAccountId);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Transaction striped_16Threads() {
+        return deposit(stripedAccountId);
+    }
+
+    private Transaction deposit(String accountId) {
+        return ledgerService.recordTransaction(accountId, AMOUNT, Transaction.TransactionType.DEPOSIT, "Payment");
+    }
+}
@@ -0,0 +1,97 @@
+package tinyledger.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit adjusted by AIMD on observed latency: each completion faster than the target grows the
+ * limit by {@code 1/limit} (about +1 per limit's worth of requests), a slower one shrinks it by 10%. A burst
+ * of slow requests admitted together reflects one overload, so the limit shrinks at most once per round
+ * trip: only a request admitted after the previous decrease can shrink it again.
+ */
+final class AdaptiveLimit {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+    private double limit;
+    private boolean decreased;
+    private long lastDecreaseNanos;
+    private volatile int currentLimit;
+    private volatile long lastShedNanos;
+    private volatile long lastReleaseNanos;
+
+    AdaptiveLimit(int minLimit, int maxLimit, long targetLatencyNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limit = maxLimit;
+        this.currentLimit = maxLimit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                shed.increment();
+                lastShedNanos = System.nanoTime();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long startedNanos, long completedNanos) {
+        inFlight.decrementAndGet();
+        lastReleaseNanos = completedNanos;
+        synchronized (this) {
+            if (completedNanos - startedNanos > targetLatencyNanos) {
+                if (!decreased || startedNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    decreased = true;
+                    lastDecreaseNanos = completedNanos;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            currentLimit = (int) limit;
+        }
+    }
+
+    /**
+     * Gives the slot back without feeding the limit, for requests rejected further down the chain.
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    int limit() {
+        return currentLimit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long shed() {
+        return shed.sum();
+    }
+
+    boolean shedSince(long nanoTime) {
+        return shed.sum() > 0 && lastShedNanos - nanoTime > 0;
+    }
+
+    /**
+     * Nothing in flight and nothing shed since {@code nanoTime}, and the limit is either back at its maximum
+     * or has seen no completions since then either, so what it learned about latency is stale.
+     */
+    boolean isIdle(long nanoTime) {
+        return inFlight.get() == 0 && !shedSince(nanoTime)
+            && (currentLimit == maxLimit || lastReleaseNanos - nanoTime <= 0);
+    }
+}
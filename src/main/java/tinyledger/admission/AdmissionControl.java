@@ -0,0 +1,183 @@
+package tinyledger.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounds the number of requests in flight globally and per account, so a flood on one account is rejected
+ * quickly instead of tying up request threads that other accounts need. Limits adapt to observed latency,
+ * see {@link AdaptiveLimit}. Callers hold the returned {@link Permit} for the duration of the request.
+ */
+@Component
+public class AdmissionControl {
+    private static final Permit NO_OP_PERMIT = () -> { };
+    static final String OTHER_ACCOUNTS = "(other)";
+
+    private final boolean enabled;
+    private final int accountMinInFlight;
+    private final int accountMaxInFlight;
+    private final long targetLatencyNanos;
+    private final Duration retryAfter;
+    private final Duration hotWindow;
+    private final AdaptiveLimit globalLimit;
+    private final Map<String, AdaptiveLimit> accountLimits = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter globalShed;
+    // Kept apart from accountLimits so counts survive eviction; capped, later accounts share the "other" series
+    private final Map<String, Counter> accountShed = new ConcurrentHashMap<>();
+    private final int maxShedAccounts;
+    private final Counter otherAccountsShed;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${tinyledger.admission.enabled:true}") boolean enabled,
+                            @Value("${tinyledger.admission.global-max-in-flight:150}") int globalMaxInFlight,
+                            @Value("${tinyledger.admission.global-min-in-flight:16}") int globalMinInFlight,
+                            @Value("${tinyledger.admission.account-max-in-flight:16}") int accountMaxInFlight,
+                            @Value("${tinyledger.admission.account-min-in-flight:1}") int accountMinInFlight,
+                            @Value("${tinyledger.admission.target-latency:PT0.05S}") Duration targetLatency,
+                            @Value("${tinyledger.admission.retry-after:PT1S}") Duration retryAfter,
+                            @Value("${tinyledger.admission.hot-window:PT10S}") Duration hotWindow,
+                            @Value("${tinyledger.admission.max-shed-accounts:100}") int maxShedAccounts) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.accountMinInFlight = accountMinInFlight;
+        this.accountMaxInFlight = accountMaxInFlight;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.retryAfter = retryAfter;
+        this.hotWindow = hotWindow;
+        this.maxShedAccounts = maxShedAccounts;
+        this.globalLimit = new AdaptiveLimit(globalMinInFlight, globalMaxInFlight, targetLatencyNanos);
+        this.globalShed = Counter.builder("ledger.admission.shed")
+            .description("Requests rejected with 429 by admission control")
+            .tag("scope", "global")
+            .register(meterRegistry);
+        this.otherAccountsShed = accountShedCounter(OTHER_ACCOUNTS);
+        Gauge.builder("ledger.admission.limit", globalLimit, AdaptiveLimit::limit)
+            .description("Current adaptive limit on requests in flight")
+            .tag("scope", "global")
+            .register(meterRegistry);
+        Gauge.builder("ledger.admission.in.flight", globalLimit, AdaptiveLimit::inFlight)
+            .description("Requests currently admitted")
+            .tag("scope", "global")
+            .register(meterRegistry);
+        Gauge.builder("ledger.admission.hot.accounts", this, control -> control.getHotAccounts().size())
+            .description("Accounts that shed load within the hot window")
+            .register(meterRegistry);
+    }
+
+    public Permit admit() {
+        return admit(List.of());
+    }
+
+    public Permit admit(String accountId) {
+        return admit(List.of(accountId));
+    }
+
+    public Permit admit(String firstAccountId, String secondAccountId) {
+        return admit(List.of(firstAccountId, secondAccountId));
+    }
+
+    private Permit admit(List<String> accountIds) {
+        if (!enabled) {
+            return NO_OP_PERMIT;
+        }
+        if (!globalLimit.tryAcquire()) {
+            globalShed.increment();
+            throw new AdmissionRejectedException("Server is overloaded, retry later", retryAfter);
+        }
+        List<AdaptiveLimit> acquired = new ArrayList<>(accountIds.size());
+        for (String accountId : accountIds) {
+            AdaptiveLimit limit = accountLimits.computeIfAbsent(accountId,
+                id -> new AdaptiveLimit(accountMinInFlight, accountMaxInFlight, targetLatencyNanos));
+            if (!limit.tryAcquire()) {
+                acquired.forEach(AdaptiveLimit::cancel);
+                globalLimit.cancel();
+                shedCounter(accountId).increment();
+                throw new AdmissionRejectedException("Too many requests in flight for account: " + accountId, retryAfter);
+            }
+            acquired.add(limit);
+        }
+
+        long started = System.nanoTime();
+        return () -> {
+            long completed = System.nanoTime();
+            for (int i = 0; i < acquired.size(); i++) {
+                AdaptiveLimit limit = acquired.get(i);
+                limit.release(started, completed);
+                // Forget accounts that are quiet and not hot, so the map does not grow with every account.
+                // A request racing with the removal may run against the stale entry, which only loosens the limit once.
+                if (limit.isIdle(completed - hotWindow.toNanos())) {
+                    accountLimits.remove(accountIds.get(i), limit);
+                }
+            }
+            globalLimit.release(started, completed);
+        };
+    }
+
+    /**
+     * Accounts that had requests rejected within the hot window, most shed first.
+     */
+    public List<HotAccount> getHotAccounts() {
+        long since = System.nanoTime() - hotWindow.toNanos();
+        List<HotAccount> hotAccounts = new ArrayList<>();
+        accountLimits.forEach((accountId, limit) -> {
+            if (limit.shedSince(since)) {
+                hotAccounts.add(new HotAccount(accountId, limit.limit(), limit.inFlight(), limit.shed()));
+            }
+        });
+        hotAccounts.sort(Comparator.comparingLong(HotAccount::shed).reversed());
+        return hotAccounts;
+    }
+
+    /**
+     * Drops accounts that stayed idle for the hot window, including ones whose last request shed load or left
+     * the limit reduced and which never got another request to be evicted on.
+     */
+    @Scheduled(initialDelayString = "${tinyledger.admission.hot-window:PT10S}",
+               fixedDelayString = "${tinyledger.admission.hot-window:PT10S}")
+    public void evictIdleAccounts() {
+        long since = System.nanoTime() - hotWindow.toNanos();
+        accountLimits.entrySet().removeIf(entry -> entry.getValue().isIdle(since));
+    }
+
+    private Counter shedCounter(String accountId) {
+        Counter counter = accountShed.get(accountId);
+        if (counter != null) {
+            return counter;
+        }
+        synchronized (accountShed) {
+            if (accountShed.size() >= maxShedAccounts) {
+                return otherAccountsShed;
+            }
+            return accountShed.computeIfAbsent(accountId, this::accountShedCounter);
+        }
+    }
+
+    private Counter accountShedCounter(String accountId) {
+        return Counter.builder("ledger.admission.shed")
+            .description("Requests rejected with 429 by admission control")
+            .tag("scope", "account")
+            .tag("account", accountId)
+            .register(meterRegistry);
+    }
+
+    int trackedAccounts() {
+        return accountLimits.size();
+    }
+
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,16 @@
+package tinyledger.admission;
+
+import java.time.Duration;
+
+public class AdmissionRejectedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
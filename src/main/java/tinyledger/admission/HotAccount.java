@@ -0,0 +1,8 @@
+package tinyledger.admission;
+
+public record HotAccount(
+    String accountId,
+    int limit,
+    int inFlight,
+    long shed
+) {}
@@ -1,16 +1,23 @@
 package tinyledger.controller;
 
+import tinyledger.admission.AdmissionControl;
+import tinyledger.dto.AccountSummaryResponse;
 import tinyledger.dto.CreateAccountRequest;
 import tinyledger.dto.ErrorResponse;
+import tinyledger.json.WireEncoder;
+import tinyledger.json.WireFormat;
 import tinyledger.model.Account;
 import tinyledger.service.LedgerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -19,21 +26,33 @@ import java.util.Map;
 @RequestMapping("/api/accounts")
 public class AccountController {
     private final LedgerService ledgerService;
+    private final AdmissionControl admissionControl;
+    private final WireEncoder wireEncoder;
 
-    AccountController(LedgerService ledgerService) {
+    AccountController(LedgerService ledgerService, AdmissionControl admissionControl, WireEncoder wireEncoder) {
         this.ledgerService = ledgerService;
+        this.admissionControl = admissionControl;
+        this.wireEncoder = wireEncoder;
     }
 
-    @Operation(summary = "Create a new account", description = "Creates a new bank account with the given name")
+    @Operation(summary = "Create a new account",
+              description = "Creates a new bank account with the given name, optionally in high-contention mode")
     @PostMapping
-    public ResponseEntity<?> createAccount(@RequestBody CreateAccountRequest request) {
-        try {
+    public ResponseEntity<?> createAccount(
+            @RequestBody CreateAccountRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try (AdmissionControl.Permit permit = admissionControl.admit()) {
             if (request.name() == null || request.name().isBlank()) {
                 return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse("Account name cannot be empty", HttpStatus.BAD_REQUEST.value()));
             }
-            return ResponseEntity.ok(ledgerService.createAccount(request.name()));
+            Account account = ledgerService.createAccount(request.name(), Boolean.TRUE.equals(request.highContention()));
+            WireFormat format = WireFormat.fromAccept(accept);
+            return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(wireEncoder.account(account, format));
         } catch (IllegalArgumentException e) {
             return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -43,19 +62,55 @@ public class AccountController {
 
     @Operation(summary = "Get all accounts", description = "Returns a list of all bank accounts with their current balances")
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        return ResponseEntity.ok(ledgerService.getAllAccounts());
+    public ResponseEntity<List<?>> getAllAccounts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try (AdmissionControl.Permit permit = admissionControl.admit()) {
+            WireFormat format = WireFormat.fromAccept(accept);
+            return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(wireEncoder.accounts(ledgerService.getAllAccounts(), format));
+        }
     }
 
     @Operation(summary = "Get account details", description = "Returns details of a specific account including its current balance")
     @GetMapping("/{accountId}")
-    public ResponseEntity<?> getAccount(@PathVariable String accountId) {
-        try {
-            return ResponseEntity.ok(ledgerService.getAccount(accountId));
+    public ResponseEntity<?> getAccount(
+            @PathVariable String accountId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try (AdmissionControl.Permit permit = admissionControl.admit(accountId)) {
+            WireFormat format = WireFormat.fromAccept(accept);
+            return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(wireEncoder.account(ledgerService.getAccount(accountId), format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(e.getMessage(), HttpStatus.NOT_FOUND.value()));
+        }
+    }
+
+    @Operation(summary = "Get account daily summary",
+              description = "Returns per-day transaction counts, deposits and withdrawals for an account within an optional date range")
+    @GetMapping("/{accountId}/summary")
+    public ResponseEntity<?> getAccountSummary(
+            @PathVariable String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("Summary start date must not be after end date", HttpStatus.BAD_REQUEST.value()));
+        }
+        try (AdmissionControl.Permit permit = admissionControl.admit(accountId)) {
+            return ResponseEntity.ok(AccountSummaryResponse.of(
+                accountId, from, to, ledgerService.getDailySummaries(accountId, from, to)));
         } catch (IllegalArgumentException e) {
             return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(new ErrorResponse(e.getMessage(), HttpStatus.NOT_FOUND.value()));
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
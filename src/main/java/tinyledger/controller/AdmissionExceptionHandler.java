@@ -0,0 +1,22 @@
+package tinyledger.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import tinyledger.admission.AdmissionRejectedException;
+import tinyledger.dto.ErrorResponse;
+
+@RestControllerAdvice
+public class AdmissionExceptionHandler {
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> tooManyRequests(AdmissionRejectedException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity
+            .status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(new ErrorResponse(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+}
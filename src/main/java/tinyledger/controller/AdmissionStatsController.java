@@ -0,0 +1,30 @@
+package tinyledger.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tinyledger.admission.AdmissionControl;
+import tinyledger.admission.HotAccount;
+
+import java.util.List;
+
+@Tag(name = "Admission Control", description = "APIs for inspecting load shedding")
+@RestController
+@RequestMapping("/api/admission")
+public class AdmissionStatsController {
+    private final AdmissionControl admissionControl;
+
+    AdmissionStatsController(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Operation(summary = "Get hot accounts",
+              description = "Returns accounts that had requests rejected recently, with their current limits")
+    @GetMapping("/hot-accounts")
+    public ResponseEntity<List<HotAccount>> getHotAccounts() {
+        return ResponseEntity.ok(admissionControl.getHotAccounts());
+    }
+}
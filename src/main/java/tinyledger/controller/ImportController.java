@@ -0,0 +1,76 @@
+package tinyledger.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tinyledger.dto.ErrorResponse;
+import tinyledger.importer.ImportFormat;
+import tinyledger.importer.ImportService;
+import tinyledger.model.ImportReport;
+
+import java.io.InputStream;
+import java.util.List;
+
+@Tag(name = "Bulk Import", description = "APIs for streaming accounts and historical transactions into the ledger")
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+    private final ImportService importService;
+
+    ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @Operation(summary = "Run a bulk import",
+              description = "Streams NDJSON or CSV records from the request body into the ledger and returns the final report. "
+                  + "Pass resume=<importId> with the same body to continue a failed import after its committed line.")
+    @PostMapping
+    public ResponseEntity<?> runImport(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String resume,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body
+    ) {
+        if (resume != null && importService.getImport(resume).isEmpty()) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("Import not found: " + resume, HttpStatus.NOT_FOUND.value()));
+        }
+        try {
+            ImportFormat importFormat = format != null ? ImportFormat.fromName(format)
+                : resume != null ? null
+                : ImportFormat.forContentType(contentType);
+            ImportReport report = importService.runImport(body, importFormat, resume);
+            return report.status() == ImportReport.Status.COMPLETED
+                ? ResponseEntity.ok(report)
+                : ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(e.getMessage(), HttpStatus.CONFLICT.value()));
+        }
+    }
+
+    @Operation(summary = "List imports", description = "Returns progress reports of all imports, oldest first")
+    @GetMapping
+    public ResponseEntity<List<ImportReport>> getImports() {
+        return ResponseEntity.ok(importService.getImports());
+    }
+
+    @Operation(summary = "Get import progress", description = "Returns the progress report of a running or finished import")
+    @GetMapping("/{importId}")
+    public ResponseEntity<?> getImport(@PathVariable String importId) {
+        return importService.getImport(importId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("Import not found: " + importId, HttpStatus.NOT_FOUND.value())));
+    }
+}
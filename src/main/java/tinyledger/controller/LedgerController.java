@@ -1,12 +1,16 @@
 package tinyledger.controller;
 
+import tinyledger.admission.AdmissionControl;
 import tinyledger.dto.ErrorResponse;
 import tinyledger.dto.TransactionRequest;
 import tinyledger.dto.TransferRequest;
+import tinyledger.json.WireEncoder;
+import tinyledger.json.WireFormat;
 import tinyledger.model.Transaction;
 import tinyledger.service.LedgerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,22 +24,32 @@ import java.util.Map;
 @RequestMapping("/api/transactions")
 public class LedgerController {
     private final LedgerService ledgerService;
+    private final AdmissionControl admissionControl;
+    private final WireEncoder wireEncoder;
 
-    LedgerController(LedgerService ledgerService) {
+    LedgerController(LedgerService ledgerService, AdmissionControl admissionControl, WireEncoder wireEncoder) {
         this.ledgerService = ledgerService;
+        this.admissionControl = admissionControl;
+        this.wireEncoder = wireEncoder;
     }
 
     @Operation(summary = "Transfer money between accounts", 
               description = "Transfers money from one account to another")
     @PostMapping("/transfer")
-    public ResponseEntity<?> transfer(@RequestBody TransferRequest request) {
-        try {
+    public ResponseEntity<?> transfer(
+            @RequestBody TransferRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try (AdmissionControl.Permit permit = admissionControl.admit(request.fromAccountId(), request.toAccountId())) {
             List<Transaction> transactions = ledgerService.transferMoney(
                 request.fromAccountId(), 
                 request.toAccountId(), 
                 request.amount(), 
                 request.description());
-            return ResponseEntity.ok(transactions);
+            WireFormat format = WireFormat.fromAccept(accept);
+            return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(wireEncoder.encodeAll(transactions, format));
         } catch (IllegalArgumentException e) {
             return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -47,12 +61,13 @@ public class LedgerController {
     @PostMapping("/{accountId}/deposit")
     public ResponseEntity<?> deposit(
             @PathVariable String accountId,
-            @RequestBody TransactionRequest request
+            @RequestBody TransactionRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        try {
+        try (AdmissionControl.Permit permit = admissionControl.admit(accountId)) {
             Transaction transaction = ledgerService.recordTransaction(
                 accountId, request.amount(), Transaction.TransactionType.DEPOSIT, request.description());
-            return ResponseEntity.ok(transaction);
+            return encoded(transaction, WireFormat.fromAccept(accept));
         } catch (IllegalArgumentException e) {
             return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -64,12 +79,13 @@ public class LedgerController {
     @PostMapping("/{accountId}/withdraw")
     public ResponseEntity<?> withdraw(
             @PathVariable String accountId,
-            @RequestBody TransactionRequest request
+            @RequestBody TransactionRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        try {
+        try (AdmissionControl.Permit permit = admissionControl.admit(accountId)) {
             Transaction transaction = ledgerService.recordTransaction(
                 accountId, request.amount(), Transaction.TransactionType.WITHDRAWAL, request.description());
-            return ResponseEntity.ok(transaction);
+            return encoded(transaction, WireFormat.fromAccept(accept));
         } catch (IllegalArgumentException e) {
             return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -77,15 +93,46 @@ public class LedgerController {
         }
     }
 
-    @Operation(summary = "Get transaction history", description = "Returns all transactions for a specific account")
+    @Operation(summary = "Get transaction history",
+              description = "Returns transactions for a specific account, oldest first. "
+                  + "Pass offset and limit to read a single page. Accept " + WireFormat.COMPACT_VALUE
+                  + " for epoch-millis timestamps and amounts in cents")
     @GetMapping("/{accountId}")
-    public ResponseEntity<?> getTransactions(@PathVariable String accountId) {
-        try {
-            return ResponseEntity.ok(ledgerService.getTransactionHistory(accountId));
+    public ResponseEntity<?> getTransactions(
+            @PathVariable String accountId,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        if ((offset != null && offset < 0) || (limit != null && limit <= 0)) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("Offset must not be negative and limit must be positive",
+                    HttpStatus.BAD_REQUEST.value()));
+        }
+        try (AdmissionControl.Permit permit = admissionControl.admit(accountId)) {
+            List<Transaction> transactions;
+            if (offset == null && limit == null) {
+                transactions = ledgerService.getTransactionHistory(accountId);
+            } else {
+                int from = offset == null ? 0 : offset;
+                int to = limit == null ? Integer.MAX_VALUE : (int) Math.min((long) from + limit, Integer.MAX_VALUE);
+                transactions = ledgerService.getTransactionHistory(accountId, from, to);
+            }
+            WireFormat format = WireFormat.fromAccept(accept);
+            return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(wireEncoder.encodeAll(transactions, format));
         } catch (IllegalArgumentException e) {
             return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(new ErrorResponse(e.getMessage(), HttpStatus.NOT_FOUND.value()));
         }
     }
-} 
\ No newline at end of file
+
+    private ResponseEntity<byte[]> encoded(Transaction transaction, WireFormat format) {
+        return ResponseEntity.ok()
+            .contentType(format.mediaType())
+            .body(wireEncoder.encode(transaction, format));
+    }
+}
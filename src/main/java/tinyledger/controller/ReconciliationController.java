@@ -0,0 +1,52 @@
+package tinyledger.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tinyledger.dto.ErrorResponse;
+import tinyledger.model.ReconciliationReport;
+import tinyledger.service.ReconciliationService;
+
+import java.util.Locale;
+
+@Tag(name = "Reconciliation", description = "APIs for checking ledger invariants")
+@RestController
+@RequestMapping("/api/reconciliation")
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    @Operation(summary = "Get the latest reconciliation report",
+              description = "Returns the result of the most recent scheduled or manual reconciliation run")
+    @GetMapping
+    public ResponseEntity<?> getLastReport() {
+        return reconciliationService.getLastReport()
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("No reconciliation has run yet", HttpStatus.NOT_FOUND.value())));
+    }
+
+    @Operation(summary = "Run reconciliation",
+              description = "Checks all accounts (mode=full) or only accounts changed since the last run (mode=incremental)")
+    @PostMapping("/run")
+    public ResponseEntity<?> run(@RequestParam(defaultValue = "incremental") String mode) {
+        ReconciliationReport.Mode runMode;
+        try {
+            runMode = ReconciliationReport.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("Unknown reconciliation mode: " + mode, HttpStatus.BAD_REQUEST.value()));
+        }
+        return ResponseEntity.ok(switch (runMode) {
+            case FULL -> reconciliationService.runFull();
+            case INCREMENTAL -> reconciliationService.runIncremental();
+        });
+    }
+}
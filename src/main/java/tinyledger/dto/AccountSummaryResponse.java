@@ -0,0 +1,43 @@
+package tinyledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import tinyledger.model.DailySummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record AccountSummaryResponse(
+    @Schema(description = "Account ID", example = "00000000-0000-0000-0000-000000000000")
+    String accountId,
+
+    @Schema(description = "First day of the requested range (inclusive), absent when unbounded", example = "2024-01-01")
+    LocalDate from,
+
+    @Schema(description = "Last day of the requested range (inclusive), absent when unbounded", example = "2024-01-31")
+    LocalDate to,
+
+    @Schema(description = "Number of transactions in the range", example = "42")
+    long transactionCount,
+
+    @Schema(description = "Sum of deposits in the range", example = "1500.00")
+    BigDecimal totalDeposits,
+
+    @Schema(description = "Sum of withdrawals in the range", example = "320.50")
+    BigDecimal totalWithdrawals,
+
+    @Schema(description = "Per-day totals for days with at least one transaction, oldest first")
+    List<DailySummary> days
+) {
+    public static AccountSummaryResponse of(String accountId, LocalDate from, LocalDate to, List<DailySummary> days) {
+        long transactionCount = 0;
+        BigDecimal totalDeposits = BigDecimal.ZERO;
+        BigDecimal totalWithdrawals = BigDecimal.ZERO;
+        for (DailySummary day : days) {
+            transactionCount += day.transactionCount();
+            totalDeposits = totalDeposits.add(day.totalDeposits());
+            totalWithdrawals = totalWithdrawals.add(day.totalWithdrawals());
+        }
+        return new AccountSummaryResponse(accountId, from, to, transactionCount, totalDeposits, totalWithdrawals, days);
+    }
+}
@@ -4,5 +4,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 
 public record CreateAccountRequest(
     @Schema(description = "Name of the account holder", example = "User name", required = true)
-    String name
-) {} 
\ No newline at end of file
+    String name,
+    @Schema(description = "Spread deposits across striped sub-balances, for accounts receiving many concurrent deposits",
+            example = "false")
+    Boolean highContention
+) {
+    public CreateAccountRequest(String name) {
+        this(name, null);
+    }
+}
@@ -0,0 +1,35 @@
+package tinyledger.importer;
+
+import java.util.Locale;
+
+/**
+ * Line-oriented input formats accepted by bulk imports. Every record is one line, so input can be split into
+ * batches anywhere between lines and parsed in parallel.
+ */
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static ImportFormat fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported import format: " + name);
+        }
+    }
+
+    /**
+     * CSV for {@code .csv} and {@code .csv.gz} files, NDJSON otherwise.
+     */
+    public static ImportFormat forFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".csv.gz") ? CSV : NDJSON;
+    }
+
+    /**
+     * CSV for {@code text/csv}, NDJSON for anything else.
+     */
+    public static ImportFormat forContentType(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv") ? CSV : NDJSON;
+    }
+}
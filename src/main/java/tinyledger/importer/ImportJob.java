@@ -0,0 +1,204 @@
+package tinyledger.importer;
+
+import tinyledger.model.ImportReport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Progress of one import, updated by the thread reading the input and by the workers applying records.
+ * <p>
+ * Lines up to {@link #committedLine()} are fully applied. Beyond it, watermarks remember the last line applied
+ * per account, so lines read again on resume are not applied twice. Each account's records are applied in
+ * line order, so a watermark covers every earlier line of its account and is dropped once the committed line
+ * passes it.
+ */
+final class ImportJob {
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final String id;
+    private final ImportFormat format;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong accountsImported = new AtomicLong();
+    private final AtomicLong transactionsImported = new AtomicLong();
+    private final AtomicLong rejectedRecords = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private final Watermarks accountWatermarks = new Watermarks();
+    private final Watermarks historyWatermarks = new Watermarks();
+    // History is only recorded on these, so an import never touches accounts that existed before it
+    private final Set<String> createdAccounts = ConcurrentHashMap.newKeySet();
+    private volatile ImportReport.Status status = ImportReport.Status.RUNNING;
+    private volatile long committedLine;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failure;
+    // Rejections before the latest (re)start, which don't count against the error budget of this run
+    private volatile long rejectedBeforeRun;
+    private long activeNanos;
+    private long resumedAtNanos = System.nanoTime();
+
+    ImportJob(String id, ImportFormat format) {
+        this.id = id;
+        this.format = format;
+    }
+
+    String id() {
+        return id;
+    }
+
+    ImportFormat format() {
+        return format;
+    }
+
+    ImportReport.Status status() {
+        return status;
+    }
+
+    long committedLine() {
+        return committedLine;
+    }
+
+    synchronized void resume() {
+        status = ImportReport.Status.RUNNING;
+        failure = null;
+        finishedAt = null;
+        resumedAtNanos = System.nanoTime();
+        rejectedBeforeRun = rejectedRecords.get();
+    }
+
+    void readThrough(long line) {
+        linesRead.accumulateAndGet(line, Math::max);
+    }
+
+    void accountImported(String accountId) {
+        createdAccounts.add(accountId);
+        accountsImported.incrementAndGet();
+    }
+
+    boolean createdAccount(String accountId) {
+        return createdAccounts.contains(accountId);
+    }
+
+    void forEachCreatedAccount(Consumer<String> action) {
+        createdAccounts.forEach(action);
+    }
+
+    void transactionsImported(long count) {
+        transactionsImported.addAndGet(count);
+    }
+
+    long rejectedSinceResume() {
+        return rejectedRecords.get() - rejectedBeforeRun;
+    }
+
+    void reject(String error) {
+        rejectedRecords.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    boolean isAccountApplied(String accountId, long line) {
+        return accountWatermarks.covers(accountId, line);
+    }
+
+    boolean isHistoryApplied(String accountId, long line) {
+        return historyWatermarks.covers(accountId, line);
+    }
+
+    void accountApplied(String accountId, long line) {
+        accountWatermarks.advance(accountId, line);
+    }
+
+    void historyApplied(String accountId, long line) {
+        historyWatermarks.advance(accountId, line);
+    }
+
+    /**
+     * Marks every line up to {@code line} as applied.
+     */
+    void commit(long line) {
+        committedLine = line;
+        accountWatermarks.pruneThrough(line);
+        historyWatermarks.pruneThrough(line);
+    }
+
+    void complete() {
+        finish(ImportReport.Status.COMPLETED, null);
+    }
+
+    void fail(String reason) {
+        finish(ImportReport.Status.FAILED, reason);
+    }
+
+    private synchronized void finish(ImportReport.Status finalStatus, String reason) {
+        activeNanos += System.nanoTime() - resumedAtNanos;
+        failure = reason;
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    synchronized ImportReport report() {
+        long nanos = status == ImportReport.Status.RUNNING
+            ? activeNanos + System.nanoTime() - resumedAtNanos
+            : activeNanos;
+        double transactionsPerSecond = nanos > 0 ? transactionsImported.get() * 1_000_000_000.0 / nanos : 0;
+        List<String> reportedErrors;
+        synchronized (errors) {
+            reportedErrors = List.copyOf(errors);
+        }
+        return new ImportReport(
+            id,
+            status,
+            format.name(),
+            startedAt,
+            finishedAt,
+            linesRead.get(),
+            committedLine,
+            accountsImported.get(),
+            transactionsImported.get(),
+            rejectedRecords.get(),
+            Math.round(transactionsPerSecond * 10) / 10.0,
+            failure,
+            reportedErrors);
+    }
+
+    /**
+     * Last applied line per key, ordered by line as well so that watermarks behind the committed line are
+     * dropped without a scan.
+     */
+    private static final class Watermarks {
+        private final Map<String, Long> lines = new HashMap<>();
+        private final NavigableMap<Long, String> keys = new TreeMap<>();
+
+        synchronized boolean covers(String key, long line) {
+            Long watermark = lines.get(key);
+            return watermark != null && line <= watermark;
+        }
+
+        synchronized void advance(String key, long line) {
+            Long previous = lines.put(key, line);
+            if (previous != null) {
+                keys.remove(previous);
+            }
+            keys.put(line, key);
+        }
+
+        synchronized void pruneThrough(long line) {
+            NavigableMap<Long, String> passed = keys.headMap(line, true);
+            passed.values().forEach(lines::remove);
+            passed.clear();
+        }
+    }
+}
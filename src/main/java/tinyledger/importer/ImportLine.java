@@ -0,0 +1,18 @@
+package tinyledger.importer;
+
+/**
+ * One NDJSON input line. {@code kind} is "account" or "transaction"; when absent, a line with an
+ * {@code accountId} is a transaction. Values are kept as text so that all formats are validated alike.
+ */
+record ImportLine(
+    String kind,
+    String id,
+    String name,
+    String accountId,
+    String type,
+    String amount,
+    String timestamp,
+    String description,
+    String transferId
+) {
+}
@@ -0,0 +1,16 @@
+package tinyledger.importer;
+
+import tinyledger.model.Transaction;
+
+/**
+ * A parsed input line, tagged with its 1-based line number.
+ */
+sealed interface ImportRecord {
+    long line();
+
+    record AccountRecord(long line, String id, String name) implements ImportRecord {
+    }
+
+    record TransactionRecord(long line, Transaction transaction) implements ImportRecord {
+    }
+}
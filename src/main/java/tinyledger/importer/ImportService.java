@@ -0,0 +1,392 @@
+package tinyledger.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tinyledger.model.ImportReport;
+import tinyledger.model.Transaction;
+import tinyledger.service.HistoryTieringService;
+import tinyledger.service.LedgerService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams accounts and historical transactions into the ledger.
+ * <p>
+ * The input is read line by line and cut into batches that a worker pool parses in parallel. Parsed batches
+ * are applied in input order, each account's transactions strictly in line order: runs of them are handed to
+ * {@link LedgerService#importTransactions} in bulk, in parallel across accounts. At most
+ * {@code 2 * parallelism} batches are read ahead, so memory stays bounded whatever the input size. Imported
+ * history is offered to the cold tier when the run ends. One import runs at a time.
+ * <p>
+ * Transactions are only recorded on accounts the same import created, so posting an input twice or naming a
+ * live account is rejected record by record instead of changing existing balances. The two legs of a transfer
+ * (records sharing a {@code transferId}) are recorded or rejected together, at the position of the later leg;
+ * the earlier leg's account holds back its following transactions until then, see {@link PendingHistory}. A
+ * leg whose counterpart is not read within {@code max-transfer-distance} lines is rejected, and the committed
+ * line never passes a held transaction.
+ */
+@Service
+public class ImportService {
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final LedgerService ledgerService;
+    private final HistoryTieringService tieringService;
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+    private final int batchLines;
+    private final long maxErrors;
+    private final long maxTransferDistance;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<ImportJob> running = new AtomicReference<>();
+
+    public ImportService(LedgerService ledgerService, HistoryTieringService tieringService, ObjectMapper objectMapper,
+                         @Value("${tinyledger.import.parallelism:0}") int parallelism,
+                         @Value("${tinyledger.import.batch-lines:10000}") int batchLines,
+                         @Value("${tinyledger.import.max-errors:1000}") long maxErrors,
+                         @Value("${tinyledger.import.max-transfer-distance:100000}") long maxTransferDistance) {
+        this.ledgerService = ledgerService;
+        this.tieringService = tieringService;
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchLines = Math.max(batchLines, 1);
+        this.maxErrors = maxErrors;
+        this.maxTransferDistance = Math.max(maxTransferDistance, 1);
+    }
+
+    /**
+     * Imports {@code input} and returns the final report, which is {@link ImportReport.Status#FAILED} if the
+     * input could not be read or too many records were rejected. A failed import is resumed by passing its id
+     * and the same input again; lines up to its committed line are skipped without being parsed.
+     *
+     * @param format input format, or null to use the resumed import's format (NDJSON for new imports)
+     */
+    public ImportReport runImport(InputStream input, ImportFormat format, String resumeImportId) {
+        ImportJob resumed = resumeImportId == null ? null : jobs.get(resumeImportId);
+        if (resumeImportId != null && resumed == null) {
+            throw new IllegalArgumentException("Import not found: " + resumeImportId);
+        }
+        ImportJob job = resumed != null
+            ? resumed
+            : new ImportJob(UUID.randomUUID().toString(), format != null ? format : ImportFormat.NDJSON);
+        if (format != null && format != job.format()) {
+            throw new IllegalArgumentException("Import " + job.id() + " was started as " + job.format());
+        }
+        if (!running.compareAndSet(null, job)) {
+            throw new IllegalStateException("Another import is running: " + running.get().id());
+        }
+        try {
+            if (resumed != null) {
+                if (resumed.status() != ImportReport.Status.FAILED) {
+                    throw new IllegalStateException("Only failed imports can be resumed, " + resumed.id() + " is "
+                        + resumed.status());
+                }
+                resumed.resume();
+                log.info("Resuming import {} after line {}", job.id(), job.committedLine());
+            } else {
+                jobs.put(job.id(), job);
+                log.info("Starting {} import {}", job.format(), job.id());
+            }
+            execute(input, job);
+            // Once per account rather than per batch, so each account gets one segment for its imported history
+            job.forEachCreatedAccount(tieringService::tierAccount);
+        } finally {
+            running.set(null);
+        }
+        ImportReport report = job.report();
+        log.info("Import {} {}: {} accounts, {} transactions, {} rejected", report.importId(),
+            report.status(), report.accountsImported(), report.transactionsImported(), report.rejectedRecords());
+        return report;
+    }
+
+    public Optional<ImportReport> getImport(String importId) {
+        return Optional.ofNullable(jobs.get(importId)).map(ImportJob::report);
+    }
+
+    public List<ImportReport> getImports() {
+        List<ImportReport> reports = new ArrayList<>();
+        for (ImportJob job : jobs.values()) {
+            reports.add(job.report());
+        }
+        reports.sort(Comparator.comparing(ImportReport::startedAt));
+        return reports;
+    }
+
+    private void execute(InputStream input, ImportJob job) {
+        RecordParser parser = new RecordParser(job.format(), job.id(), objectMapper);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, workerThreadFactory(job.id()));
+        Deque<Future<RecordParser.ParsedBatch>> pending = new ArrayDeque<>();
+        PendingHistory pendingHistory = new PendingHistory();
+        long lastLogged = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16)) {
+            long skipThrough = job.committedLine();
+            long line = 0;
+            List<String> lines = new ArrayList<>(batchLines);
+            String text;
+            while ((text = reader.readLine()) != null) {
+                if (++line <= skipThrough) {
+                    continue;
+                }
+                lines.add(text);
+                if (lines.size() < batchLines) {
+                    continue;
+                }
+                pending.addLast(submitParse(workers, parser, line - lines.size() + 1, lines, job, line));
+                lines = new ArrayList<>(batchLines);
+                // Apply the oldest batch before reading further, which bounds how much input is held in memory
+                if (pending.size() >= 2 * parallelism) {
+                    apply(pending.removeFirst().get(), job, workers, pendingHistory);
+                    if (tooManyErrors(job)) {
+                        return;
+                    }
+                    lastLogged = logProgress(job, lastLogged);
+                }
+            }
+            if (!lines.isEmpty()) {
+                pending.addLast(submitParse(workers, parser, line - lines.size() + 1, lines, job, line));
+            }
+            while (!pending.isEmpty()) {
+                apply(pending.removeFirst().get(), job, workers, pendingHistory);
+                if (tooManyErrors(job)) {
+                    return;
+                }
+                lastLogged = logProgress(job, lastLogged);
+            }
+            if (line < skipThrough) {
+                job.fail("Input has " + line + " lines but " + skipThrough + " were already imported");
+                return;
+            }
+            rejectStalledTransfers(job, workers, pendingHistory, line);
+            if (tooManyErrors(job)) {
+                return;
+            }
+            job.complete();
+        } catch (IOException e) {
+            job.fail("Reading input failed: " + e.getMessage());
+        } catch (ExecutionException e) {
+            job.fail("Import failed: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import was interrupted");
+        } catch (RuntimeException e) {
+            job.fail("Import failed: " + e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static Future<RecordParser.ParsedBatch> submitParse(ExecutorService workers, RecordParser parser,
+                                                                 long firstLine, List<String> lines, ImportJob job,
+                                                                 long lastLine) {
+        job.readThrough(lastLine);
+        return workers.submit(() -> parser.parse(firstLine, lines));
+    }
+
+    private void apply(RecordParser.ParsedBatch batch, ImportJob job, ExecutorService workers,
+                       PendingHistory pendingHistory) throws InterruptedException, ExecutionException {
+        batch.errors().forEach(job::reject);
+
+        // Accounts first, so transactions may reference accounts declared later in the same batch
+        for (ImportRecord record : batch.records()) {
+            if (record instanceof ImportRecord.AccountRecord account && !job.isAccountApplied(account.id(), account.line())) {
+                try {
+                    ledgerService.importAccount(account.id(), account.name());
+                    job.accountImported(account.id());
+                } catch (IllegalArgumentException e) {
+                    job.reject("line " + account.line() + ": " + e.getMessage());
+                }
+                job.accountApplied(account.id(), account.line());
+            }
+        }
+        for (ImportRecord record : batch.records()) {
+            if (!(record instanceof ImportRecord.TransactionRecord transaction)) {
+                continue;
+            }
+            String accountId = transaction.transaction().accountId();
+            if (job.isHistoryApplied(accountId, transaction.line())) {
+                continue;
+            }
+            // Legs are checked when their transfer is recorded, so both are rejected together
+            if (transaction.transaction().transferId() == null && !job.createdAccount(accountId)) {
+                job.reject("line " + transaction.line() + ": Account was not created by this import: " + accountId);
+                continue;
+            }
+            ImportRecord.TransactionRecord[] sameAccount = pendingHistory.add(transaction);
+            if (sameAccount != null) {
+                for (ImportRecord.TransactionRecord leg : sameAccount) {
+                    job.reject("line " + leg.line() + ": Transfer legs are on the same account: "
+                        + leg.transaction().transferId());
+                }
+            }
+        }
+        applyReady(job, workers, pendingHistory);
+
+        // A leg whose counterpart is too far off is given up, which bounds how much is held back
+        while (pendingHistory.firstLine() <= batch.lastLine() - maxTransferDistance) {
+            rejectStalledTransfer(job, pendingHistory.removeOldest(), " within " + maxTransferDistance + " lines");
+            applyReady(job, workers, pendingHistory);
+        }
+        job.commit(Math.min(batch.lastLine(), pendingHistory.firstLine() - 1));
+    }
+
+    /**
+     * Records queued transactions until every account's queue is empty or stopped by a transfer leg. Accounts
+     * are independent between transfers, so each round records their runs in parallel.
+     */
+    private void applyReady(ImportJob job, ExecutorService workers, PendingHistory pendingHistory)
+            throws InterruptedException, ExecutionException {
+        for (PendingHistory.Ready ready = pendingHistory.takeReady(); !ready.isEmpty(); ready = pendingHistory.takeReady()) {
+            List<Map.Entry<String, List<ImportRecord.TransactionRecord>>> entries =
+                new ArrayList<>(ready.histories().entrySet());
+            if (entries.size() == 1) {
+                applyHistory(job, entries.get(0).getKey(), entries.get(0).getValue());
+            } else if (!entries.isEmpty()) {
+                int slices = Math.min(parallelism, entries.size());
+                List<Callable<Void>> tasks = new ArrayList<>(slices);
+                for (int slice = 0; slice < slices; slice++) {
+                    List<Map.Entry<String, List<ImportRecord.TransactionRecord>>> part =
+                        entries.subList(slice * entries.size() / slices, (slice + 1) * entries.size() / slices);
+                    tasks.add(() -> {
+                        for (Map.Entry<String, List<ImportRecord.TransactionRecord>> entry : part) {
+                            applyHistory(job, entry.getKey(), entry.getValue());
+                        }
+                        return null;
+                    });
+                }
+                for (Future<Void> result : workers.invokeAll(tasks)) {
+                    result.get();
+                }
+            }
+            for (ImportRecord.TransactionRecord[] legs : ready.transfers()) {
+                applyTransfer(job, legs[0], legs[1]);
+            }
+        }
+    }
+
+    private void applyTransfer(ImportJob job, ImportRecord.TransactionRecord first,
+                               ImportRecord.TransactionRecord second) {
+        boolean firstIsWithdrawal = first.transaction().type() == Transaction.TransactionType.WITHDRAWAL;
+        Transaction withdrawal = (firstIsWithdrawal ? first : second).transaction();
+        Transaction deposit = (firstIsWithdrawal ? second : first).transaction();
+        String error = null;
+        if (!job.createdAccount(withdrawal.accountId()) || !job.createdAccount(deposit.accountId())) {
+            error = "Account was not created by this import: "
+                + (job.createdAccount(withdrawal.accountId()) ? deposit.accountId() : withdrawal.accountId());
+        } else {
+            try {
+                if (!ledgerService.importTransfer(withdrawal, deposit)) {
+                    error = "Insufficient funds in account: " + withdrawal.accountId();
+                }
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+        if (error == null) {
+            job.transactionsImported(2);
+        } else {
+            job.reject("line " + first.line() + ": " + error);
+            job.reject("line " + second.line() + ": " + error);
+        }
+        job.historyApplied(first.transaction().accountId(), first.line());
+        job.historyApplied(second.transaction().accountId(), second.line());
+    }
+
+    private void rejectStalledTransfers(ImportJob job, ExecutorService workers, PendingHistory pendingHistory,
+                                        long lastLine) throws InterruptedException, ExecutionException {
+        while (pendingHistory.firstLine() != Long.MAX_VALUE) {
+            rejectStalledTransfer(job, pendingHistory.removeOldest(), "");
+            applyReady(job, workers, pendingHistory);
+        }
+        job.commit(lastLine);
+    }
+
+    private static void rejectStalledTransfer(ImportJob job, ImportRecord.TransactionRecord[] legs, String distance) {
+        String transferId = legs[0].transaction().transferId();
+        if (legs.length == 1) {
+            job.reject("line " + legs[0].line() + ": Transfer leg without its counterpart" + distance + ": " + transferId);
+            return;
+        }
+        // Both legs were read, but each waits behind a leg of another transfer that waits for this one
+        for (ImportRecord.TransactionRecord leg : legs) {
+            job.reject("line " + leg.line() + ": Transfer legs are out of order with another transfer: " + transferId);
+        }
+    }
+
+    private void applyHistory(ImportJob job, String accountId, List<ImportRecord.TransactionRecord> records) {
+        long lastLine = records.get(records.size() - 1).line();
+        List<Transaction> transactions = new ArrayList<>(records.size());
+        for (ImportRecord.TransactionRecord record : records) {
+            transactions.add(record.transaction());
+        }
+
+        List<Transaction> rejected;
+        try {
+            rejected = ledgerService.importTransactions(accountId, transactions);
+        } catch (IllegalArgumentException e) {
+            for (ImportRecord.TransactionRecord record : records) {
+                job.reject("line " + record.line() + ": " + e.getMessage());
+            }
+            job.historyApplied(accountId, lastLine);
+            return;
+        }
+        if (!rejected.isEmpty()) {
+            Set<Transaction> rejectedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            rejectedSet.addAll(rejected);
+            for (ImportRecord.TransactionRecord record : records) {
+                if (rejectedSet.contains(record.transaction())) {
+                    job.reject("line " + record.line() + ": Insufficient funds in account: " + accountId);
+                }
+            }
+        }
+        job.transactionsImported(transactions.size() - rejected.size());
+        job.historyApplied(accountId, lastLine);
+    }
+
+    private boolean tooManyErrors(ImportJob job) {
+        // Each run gets the full budget, otherwise a job that failed on it could never be resumed
+        if (job.rejectedSinceResume() <= maxErrors) {
+            return false;
+        }
+        job.fail("More than " + maxErrors + " records were rejected");
+        return true;
+    }
+
+    private static long logProgress(ImportJob job, long lastLogged) {
+        long now = System.nanoTime();
+        if (now - lastLogged < PROGRESS_LOG_INTERVAL_NANOS) {
+            return lastLogged;
+        }
+        ImportReport report = job.report();
+        log.info("Import {}: line {}, {} transactions ({}/s), {} rejected", report.importId(),
+            report.committedLine(), report.transactionsImported(), report.transactionsPerSecond(),
+            report.rejectedRecords());
+        return now;
+    }
+
+    private static ThreadFactory workerThreadFactory(String importId) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "import-" + importId.substring(0, 8) + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package tinyledger.importer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Transactions of one import run that are read but not yet recorded, queued per account in line order.
+ * <p>
+ * A transfer leg stops its account's queue until the counterpart leg reaches the head of its own account's
+ * queue; the transfer is then recorded at the position of its later leg, and both queues move on. Everything
+ * else is handed out in runs of consecutive transactions per account. Used by the thread reading the input only.
+ */
+final class PendingHistory {
+    private final Map<String, ArrayDeque<ImportRecord.TransactionRecord>> queues = new HashMap<>();
+    // Queued transactions by line, so the oldest one is found without a scan
+    private final NavigableMap<Long, ImportRecord.TransactionRecord> byLine = new TreeMap<>();
+    // First leg of each transfer whose second leg was not read yet, by transfer id
+    private final Map<String, ImportRecord.TransactionRecord> unpairedLegs = new HashMap<>();
+    private final Map<ImportRecord.TransactionRecord, ImportRecord.TransactionRecord> counterparts = new IdentityHashMap<>();
+    // Accounts whose queue head changed since the last call to takeReady
+    private Set<String> touched = new LinkedHashSet<>();
+
+    /**
+     * Queues {@code record} behind its account's earlier transactions. Returns the two legs of a transfer
+     * within a single account, which are taken out of the queue again to be rejected, or null.
+     */
+    ImportRecord.TransactionRecord[] add(ImportRecord.TransactionRecord record) {
+        String transferId = record.transaction().transferId();
+        if (transferId != null) {
+            ImportRecord.TransactionRecord first = unpairedLegs.remove(transferId);
+            if (first == null) {
+                unpairedLegs.put(transferId, record);
+            } else if (first.transaction().accountId().equals(record.transaction().accountId())) {
+                remove(first);
+                return new ImportRecord.TransactionRecord[]{first, record};
+            } else {
+                counterparts.put(first, record);
+                counterparts.put(record, first);
+            }
+        }
+        String accountId = record.transaction().accountId();
+        queues.computeIfAbsent(accountId, id -> new ArrayDeque<>()).addLast(record);
+        byLine.put(record.line(), record);
+        touched.add(accountId);
+        return null;
+    }
+
+    /**
+     * Takes what can be recorded next: the run of plain transactions at the head of each account's queue,
+     * which go first, then the transfers whose legs are both at the head of their queues once those runs are
+     * taken. Call again after recording them until nothing is returned.
+     */
+    Ready takeReady() {
+        Set<String> accountIds = touched;
+        touched = new LinkedHashSet<>();
+        Map<String, List<ImportRecord.TransactionRecord>> histories = new LinkedHashMap<>();
+        for (String accountId : accountIds) {
+            ArrayDeque<ImportRecord.TransactionRecord> queue = queues.get(accountId);
+            List<ImportRecord.TransactionRecord> run = null;
+            while (queue != null && !queue.isEmpty() && queue.peekFirst().transaction().transferId() == null) {
+                ImportRecord.TransactionRecord record = queue.pollFirst();
+                byLine.remove(record.line());
+                if (run == null) {
+                    run = new ArrayList<>();
+                    histories.put(accountId, run);
+                }
+                run.add(record);
+            }
+        }
+        List<ImportRecord.TransactionRecord[]> transfers = new ArrayList<>();
+        for (String accountId : accountIds) {
+            ArrayDeque<ImportRecord.TransactionRecord> queue = queues.get(accountId);
+            if (queue == null || queue.isEmpty()) {
+                queues.remove(accountId);
+                continue;
+            }
+            ImportRecord.TransactionRecord leg = queue.peekFirst();
+            ImportRecord.TransactionRecord counterpart = counterparts.get(leg);
+            if (counterpart != null && queues.get(counterpart.transaction().accountId()).peekFirst() == counterpart) {
+                remove(leg);
+                remove(counterpart);
+                transfers.add(leg.line() < counterpart.line()
+                    ? new ImportRecord.TransactionRecord[]{leg, counterpart}
+                    : new ImportRecord.TransactionRecord[]{counterpart, leg});
+            }
+        }
+        return new Ready(histories, transfers);
+    }
+
+    /**
+     * Line of the oldest queued transaction, or {@link Long#MAX_VALUE} if none is queued.
+     */
+    long firstLine() {
+        return byLine.isEmpty() ? Long.MAX_VALUE : byLine.firstKey();
+    }
+
+    /**
+     * Takes the oldest queued transfer out of the queues together with its counterpart, if that was read.
+     * Once {@link #takeReady} returns nothing, the oldest queued transaction is always such a stalled leg.
+     */
+    ImportRecord.TransactionRecord[] removeOldest() {
+        ImportRecord.TransactionRecord oldest = byLine.firstEntry().getValue();
+        ImportRecord.TransactionRecord counterpart = counterparts.get(oldest);
+        remove(oldest);
+        if (counterpart == null) {
+            return new ImportRecord.TransactionRecord[]{oldest};
+        }
+        remove(counterpart);
+        return new ImportRecord.TransactionRecord[]{oldest, counterpart};
+    }
+
+    private void remove(ImportRecord.TransactionRecord record) {
+        String accountId = record.transaction().accountId();
+        ArrayDeque<ImportRecord.TransactionRecord> queue = queues.get(accountId);
+        if (queue.peekFirst() == record) {
+            queue.pollFirst();
+        } else {
+            queue.remove(record);
+        }
+        byLine.remove(record.line());
+        counterparts.remove(record);
+        String transferId = record.transaction().transferId();
+        if (transferId != null) {
+            unpairedLegs.remove(transferId, record);
+        }
+        touched.add(accountId);
+    }
+
+    record Ready(Map<String, List<ImportRecord.TransactionRecord>> histories,
+                 List<ImportRecord.TransactionRecord[]> transfers) {
+        boolean isEmpty() {
+            return histories.isEmpty() && transfers.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package tinyledger.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tinyledger.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns batches of input lines into records. Stateless apart from its configuration, so batches can be
+ * parsed on any number of threads at once.
+ * <p>
+ * CSV lines are {@code account,<id>,<name>} or
+ * {@code transaction,<id>,<accountId>,<DEPOSIT|WITHDRAWAL>,<amount>,<timestamp>[,<description>[,<transferId>]]},
+ * with optional double quotes around fields. Blank lines, lines starting with {@code #} and a CSV header
+ * starting with {@code kind,} are skipped. A transaction without an id gets {@code <importId>-<line>}.
+ */
+final class RecordParser {
+    private final ImportFormat format;
+    private final String importId;
+    private final ObjectMapper objectMapper;
+
+    RecordParser(ImportFormat format, String importId, ObjectMapper objectMapper) {
+        this.format = format;
+        this.importId = importId;
+        this.objectMapper = objectMapper;
+    }
+
+    ParsedBatch parse(long firstLine, List<String> lines) {
+        List<ImportRecord> records = new ArrayList<>(lines.size());
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            long line = firstLine + i;
+            String text = lines.get(i);
+            if (text.isBlank() || text.startsWith("#") || (format == ImportFormat.CSV && text.startsWith("kind,"))) {
+                continue;
+            }
+            try {
+                records.add(format == ImportFormat.CSV ? parseCsv(line, text) : parseJson(line, text));
+            } catch (IllegalArgumentException e) {
+                errors.add("line " + line + ": " + e.getMessage());
+            }
+        }
+        return new ParsedBatch(firstLine, firstLine + lines.size() - 1, records, errors);
+    }
+
+    private ImportRecord parseJson(long line, String text) {
+        ImportLine value;
+        try {
+            value = objectMapper.readValue(text, ImportLine.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        String kind = value.kind() != null ? value.kind() : value.accountId() != null ? "transaction" : "account";
+        return switch (kind.toLowerCase(Locale.ROOT)) {
+            case "account" -> new ImportRecord.AccountRecord(line, value.id(), value.name());
+            case "transaction" -> transaction(line, value.id(), value.accountId(), value.type(), value.amount(),
+                value.timestamp(), value.description(), value.transferId());
+            default -> throw new IllegalArgumentException("Unknown record kind: " + kind);
+        };
+    }
+
+    private ImportRecord parseCsv(long line, String text) {
+        List<String> fields = splitCsv(text);
+        return switch (fields.get(0).toLowerCase(Locale.ROOT)) {
+            case "account" -> {
+                if (fields.size() != 3) {
+                    throw new IllegalArgumentException("Expected account,<id>,<name>");
+                }
+                yield new ImportRecord.AccountRecord(line, fields.get(1), fields.get(2));
+            }
+            case "transaction" -> {
+                if (fields.size() < 6 || fields.size() > 8) {
+                    throw new IllegalArgumentException(
+                        "Expected transaction,<id>,<accountId>,<type>,<amount>,<timestamp>[,<description>[,<transferId>]]");
+                }
+                yield transaction(line, fields.get(1), fields.get(2), fields.get(3), fields.get(4), fields.get(5),
+                    fields.size() > 6 ? fields.get(6) : null, fields.size() > 7 ? fields.get(7) : null);
+            }
+            default -> throw new IllegalArgumentException("Unknown record kind: " + fields.get(0));
+        };
+    }
+
+    private ImportRecord.TransactionRecord transaction(long line, String id, String accountId, String type,
+                                                       String amount, String timestamp, String description,
+                                                       String transferId) {
+        if (accountId == null || accountId.isBlank()) {
+            throw new IllegalArgumentException("Transaction needs an accountId");
+        }
+        Transaction.TransactionType transactionType;
+        try {
+            transactionType = Transaction.TransactionType.valueOf(type == null ? "" : type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Transaction type must be DEPOSIT or WITHDRAWAL, got: " + type);
+        }
+        BigDecimal value;
+        try {
+            value = new BigDecimal(amount == null ? "" : amount.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        if (value.signum() <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be positive");
+        }
+        LocalDateTime time;
+        try {
+            time = LocalDateTime.parse(timestamp == null ? "" : timestamp.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid timestamp, expected ISO local date-time: " + timestamp);
+        }
+        return new ImportRecord.TransactionRecord(line, new Transaction(
+            id == null || id.isBlank() ? importId + "-" + line : id,
+            accountId,
+            value,
+            transactionType,
+            description == null ? "" : description,
+            time,
+            transferId == null || transferId.isBlank() ? null : transferId));
+    }
+
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Records of input lines {@code [firstLine, lastLine]} in input order, plus the lines that failed to parse.
+     */
+    record ParsedBatch(long firstLine, long lastLine, List<ImportRecord> records, List<String> errors) {
+    }
+}
@@ -0,0 +1,45 @@
+package tinyledger.importer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import tinyledger.model.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Offline loader: imports {@code tinyledger.import.file} (NDJSON or CSV, optionally gzipped) once the
+ * application has started. Startup fails if the import does.
+ */
+@Component
+class StartupImport implements ApplicationRunner {
+    private final ImportService importService;
+    private final String file;
+
+    StartupImport(ImportService importService, @Value("${tinyledger.import.file:}") String file) {
+        this.importService = importService;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (file.isBlank()) {
+            return;
+        }
+        Path path = Path.of(file);
+        String fileName = path.getFileName().toString();
+        try (InputStream input = fileName.endsWith(".gz")
+                ? new GZIPInputStream(Files.newInputStream(path), 1 << 16)
+                : Files.newInputStream(path)) {
+            ImportReport report = importService.runImport(input, ImportFormat.forFileName(fileName), null);
+            if (report.status() != ImportReport.Status.COMPLETED) {
+                throw new IllegalStateException("Import of " + path + " failed: " + report.failure());
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package tinyledger.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tinyledger.model.Account;
+import tinyledger.model.Transaction;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Renders transactions and accounts in a {@link WireFormat}.
+ * <p>
+ * Transactions never change once recorded, so each one is encoded once and its bytes are kept in a bounded,
+ * direct-mapped cache: a slot chosen by transaction id holds the last transaction encoded there, and a
+ * colliding transaction simply replaces it. History responses are then built by copying cached bytes.
+ * Accounts change with every balance update and are not cached.
+ */
+@Component
+public class WireEncoder {
+    static final int MINOR_UNIT_SCALE = 2;
+
+    private final ObjectMapper objectMapper;
+    private final ZoneId zone;
+    private final AtomicReferenceArray<Encoded> cache;
+    private final int mask;
+    private final Counter hits;
+    private final Counter misses;
+
+    public WireEncoder(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       @Value("${tinyledger.json.cache-size:65536}") int cacheSize) {
+        this(objectMapper, meterRegistry, cacheSize, ZoneId.systemDefault());
+    }
+
+    WireEncoder(ObjectMapper objectMapper, MeterRegistry meterRegistry, int cacheSize, ZoneId zone) {
+        this.objectMapper = objectMapper;
+        this.zone = zone;
+        int slots = Integer.highestOneBit(Math.max(cacheSize, 1) * 2 - 1);
+        this.cache = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+        this.hits = Counter.builder("ledger.json.cache")
+            .description("Transaction encodings served from the cache")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("ledger.json.cache")
+            .description("Transaction encodings served from the cache")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the encoded transaction. The array is shared with the cache and must not be modified.
+     */
+    public byte[] encode(Transaction transaction, WireFormat format) {
+        int slot = (transaction.id().hashCode() * 31 + format.ordinal()) & mask;
+        Encoded cached = cache.get(slot);
+        // Cold-tier reads decode fresh instances, so hits are matched by value rather than identity
+        if (cached != null && cached.format() == format
+                && (cached.transaction() == transaction || cached.transaction().equals(transaction))) {
+            hits.increment();
+            return cached.bytes();
+        }
+        misses.increment();
+        byte[] bytes = write(format == WireFormat.COMPACT ? compact(transaction) : transaction);
+        cache.set(slot, new Encoded(transaction, format, bytes));
+        return bytes;
+    }
+
+    /**
+     * Returns {@code transactions} as a JSON array, copied from their encodings into one exactly sized array.
+     */
+    public byte[] encodeAll(List<Transaction> transactions, WireFormat format) {
+        byte[][] parts = new byte[transactions.size()][];
+        int length = 2 + Math.max(transactions.size() - 1, 0);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = encode(transactions.get(i), format);
+            length += parts[i].length;
+        }
+        byte[] result = new byte[length];
+        result[0] = '[';
+        int position = 1;
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                result[position++] = ',';
+            }
+            System.arraycopy(parts[i], 0, result, position, parts[i].length);
+            position += parts[i].length;
+        }
+        result[position] = ']';
+        return result;
+    }
+
+    /**
+     * Returns the response body for an account, either the account itself or its compact form.
+     */
+    public Object account(Account account, WireFormat format) {
+        return format == WireFormat.COMPACT
+            ? new CompactAccount(account.id(), account.name(), toMinorUnits(account.balance()))
+            : account;
+    }
+
+    public List<?> accounts(List<Account> accounts, WireFormat format) {
+        if (format != WireFormat.COMPACT) {
+            return accounts;
+        }
+        List<Object> result = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            result.add(account(account, format));
+        }
+        return result;
+    }
+
+    private CompactTransaction compact(Transaction transaction) {
+        return new CompactTransaction(
+            transaction.id(),
+            transaction.accountId(),
+            toMinorUnits(transaction.amount()),
+            transaction.type(),
+            transaction.description(),
+            transaction.timestamp().atZone(zone).toInstant().toEpochMilli(),
+            transaction.transferId());
+    }
+
+    /**
+     * Whole minor units as an integer, or an exact fraction of one for amounts finer than a cent.
+     */
+    static Number toMinorUnits(BigDecimal amount) {
+        BigDecimal minor = amount.movePointRight(MINOR_UNIT_SCALE);
+        if (minor.signum() == 0) {
+            return 0L;
+        }
+        BigDecimal stripped = minor.stripTrailingZeros();
+        return stripped.scale() <= 0 ? stripped.toBigIntegerExact() : stripped;
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Encoded(Transaction transaction, WireFormat format, byte[] bytes) {
+    }
+
+    record CompactTransaction(
+        String id,
+        String accountId,
+        Number amount,
+        Transaction.TransactionType type,
+        String description,
+        long timestamp,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String transferId
+    ) {
+    }
+
+    record CompactAccount(String id, String name, Number balance) {
+    }
+}
@@ -0,0 +1,54 @@
+package tinyledger.json;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * JSON shapes of transaction and account responses. Clients opt into the compact one through the
+ * {@code Accept} header; everything else gets the standard form.
+ */
+public enum WireFormat {
+    STANDARD(MediaType.APPLICATION_JSON),
+    // Epoch-millis timestamps and amounts in minor units (cents)
+    COMPACT(MediaType.parseMediaType(WireFormat.COMPACT_VALUE));
+
+    public static final String COMPACT_VALUE = "application/vnd.tinyledger.compact+json";
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Picks the compact form only if the client names it with a quality at least as high as any media type
+     * the standard form would satisfy; a missing or malformed header gets the standard form.
+     */
+    public static WireFormat fromAccept(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return STANDARD;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return STANDARD;
+        }
+        double compactQuality = 0;
+        double standardQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            if (COMPACT.mediaType.equalsTypeAndSubtype(mediaType)) {
+                compactQuality = Math.max(compactQuality, mediaType.getQualityValue());
+            } else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                standardQuality = Math.max(standardQuality, mediaType.getQualityValue());
+            }
+        }
+        return compactQuality > 0 && compactQuality >= standardQuality ? COMPACT : STANDARD;
+    }
+}
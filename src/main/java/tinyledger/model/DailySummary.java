@@ -0,0 +1,28 @@
+package tinyledger.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailySummary(
+    LocalDate date,
+    long transactionCount,
+    BigDecimal totalDeposits,
+    BigDecimal totalWithdrawals
+) {
+    public static DailySummary of(Transaction transaction) {
+        return switch (transaction.type()) {
+            case DEPOSIT -> new DailySummary(
+                transaction.timestamp().toLocalDate(), 1, transaction.amount(), BigDecimal.ZERO);
+            case WITHDRAWAL -> new DailySummary(
+                transaction.timestamp().toLocalDate(), 1, BigDecimal.ZERO, transaction.amount());
+        };
+    }
+
+    public DailySummary plus(DailySummary other) {
+        return new DailySummary(
+            date,
+            transactionCount + other.transactionCount,
+            totalDeposits.add(other.totalDeposits),
+            totalWithdrawals.add(other.totalWithdrawals));
+    }
+}
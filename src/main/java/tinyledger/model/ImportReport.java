@@ -0,0 +1,28 @@
+package tinyledger.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ImportReport(
+    String importId,
+    Status status,
+    String format,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    long linesRead,
+    // Every line up to here has been applied; a resumed import continues after it
+    long committedLine,
+    long accountsImported,
+    long transactionsImported,
+    long rejectedRecords,
+    double transactionsPerSecond,
+    String failure,
+    // Capped, see rejectedRecords for the total
+    List<String> errors
+) {
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
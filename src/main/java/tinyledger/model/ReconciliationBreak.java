@@ -0,0 +1,14 @@
+package tinyledger.model;
+
+public record ReconciliationBreak(
+    BreakType type,
+    String accountId,
+    String transferId,
+    String detail
+) {
+    public enum BreakType {
+        BALANCE_MISMATCH,
+        NEGATIVE_BALANCE,
+        UNBALANCED_TRANSFER
+    }
+}
@@ -0,0 +1,23 @@
+package tinyledger.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReconciliationReport(
+    Mode mode,
+    LocalDateTime startedAt,
+    long durationMillis,
+    long accountsChecked,
+    long transactionsChecked,
+    int pendingTransfers,
+    // High-contention accounts too busy to snapshot, retried by the next run
+    int deferredAccounts,
+    long breakCount,
+    // Capped, see breakCount for the total
+    List<ReconciliationBreak> breaks
+) {
+    public enum Mode {
+        FULL,
+        INCREMENTAL
+    }
+}
@@ -1,5 +1,7 @@
 package tinyledger.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -9,14 +11,26 @@ public record Transaction(
     BigDecimal amount,
     TransactionType type,
     String description,
-    LocalDateTime timestamp
+    LocalDateTime timestamp,
+    // Shared by the two legs of a transfer, null otherwise
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String transferId
 ) {
     public enum TransactionType {
         DEPOSIT,
         WITHDRAWAL
     }
 
+    public Transaction(String id, String accountId, BigDecimal amount, TransactionType type, String description,
+                       LocalDateTime timestamp) {
+        this(id, accountId, amount, type, description, timestamp, null);
+    }
+
     public Transaction(String id, String accountId, BigDecimal amount, TransactionType type, String description) {
         this(id, accountId, amount, type, description, LocalDateTime.now());
     }
-} 
\ No newline at end of file
+
+    public BigDecimal signedAmount() {
+        return type == TransactionType.DEPOSIT ? amount : amount.negate();
+    }
+}
@@ -0,0 +1,98 @@
+package tinyledger.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tinyledger.storage.SegmentStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically moves old transactions out of the heap into compressed on-disk segments.
+ * <p>
+ * Enabled by a runtime flag rather than a bean condition, since ahead-of-time processing fixes bean
+ * conditions at build time.
+ */
+@Service
+public class HistoryTieringService {
+    private static final Logger log = LoggerFactory.getLogger(HistoryTieringService.class);
+
+    private final LedgerService ledgerService;
+    private final boolean enabled;
+    private final SegmentStore segmentStore;
+    private final Duration maxHotAge;
+    private final int maxHotTransactions;
+    private final int minSegmentTransactions;
+    private final int maxSegmentTransactions;
+    private final Counter movedTransactions;
+    private final Counter failures;
+    // moveToColdTier must not run concurrently for one account
+    private final Set<String> accountsInProgress = ConcurrentHashMap.newKeySet();
+
+    public HistoryTieringService(LedgerService ledgerService, MeterRegistry meterRegistry,
+                                 @Value("${tinyledger.tiering.enabled:false}") boolean enabled,
+                                 @Value("${tinyledger.tiering.directory:data/segments}") Path directory,
+                                 @Value("${tinyledger.tiering.max-hot-age:P7D}") Duration maxHotAge,
+                                 @Value("${tinyledger.tiering.max-hot-transactions:10000}") int maxHotTransactions,
+                                 @Value("${tinyledger.tiering.min-segment-transactions:1000}") int minSegmentTransactions,
+                                 @Value("${tinyledger.tiering.max-segment-transactions:1000000}") int maxSegmentTransactions)
+            throws IOException {
+        this.ledgerService = ledgerService;
+        this.enabled = enabled;
+        this.segmentStore = enabled ? new SegmentStore(directory) : null;
+        if (enabled) {
+            segmentStore.clear();
+        }
+        this.maxHotAge = maxHotAge;
+        this.maxHotTransactions = maxHotTransactions;
+        this.minSegmentTransactions = Math.max(minSegmentTransactions, 1);
+        this.maxSegmentTransactions = maxSegmentTransactions;
+        this.movedTransactions = Counter.builder("ledger.tiering.transactions.moved")
+            .description("Transactions moved from memory to cold segments")
+            .register(meterRegistry);
+        this.failures = Counter.builder("ledger.tiering.failures")
+            .description("Accounts whose history could not be moved to a cold segment")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${tinyledger.tiering.interval:PT1M}",
+               fixedDelayString = "${tinyledger.tiering.interval:PT1M}")
+    public void tierAll() {
+        if (!enabled) {
+            return;
+        }
+        for (String accountId : ledgerService.getAllAccountIds()) {
+            tierAccount(accountId);
+        }
+    }
+
+    /**
+     * Moves old history of one account to the cold tier if enough has built up; a no-op when tiering is
+     * disabled or the account is already being tiered by another caller.
+     */
+    public void tierAccount(String accountId) {
+        if (!enabled || !accountsInProgress.add(accountId)) {
+            return;
+        }
+        try {
+            movedTransactions.increment(ledgerService.moveToColdTier(accountId,
+                LocalDateTime.now().minus(maxHotAge), maxHotTransactions, minSegmentTransactions,
+                maxSegmentTransactions, segmentStore));
+        } catch (IOException | UncheckedIOException e) {
+            failures.increment();
+            log.warn("Could not move history of account {} to the cold tier", accountId, e);
+        } finally {
+            accountsInProgress.remove(accountId);
+        }
+    }
+}
@@ -1,43 +1,125 @@
 package tinyledger.service;
 
 import tinyledger.model.Account;
+import tinyledger.model.DailySummary;
 import tinyledger.model.Transaction;
+import tinyledger.storage.ColdSegment;
+import tinyledger.storage.SegmentStore;
+import tinyledger.storage.TransactionHistory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+import java.util.regex.Pattern;
 
 @Service
 public class LedgerService {
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 64;
+    // Imported ids double as segment directory names, see SegmentStore
+    private static final Pattern ACCOUNT_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
     private final Map<String, Account> accounts = new ConcurrentHashMap<>();
-    private final Map<String, List<Transaction>> accountTransactions = new ConcurrentHashMap<>();
+    private final Map<String, TransactionHistory> accountTransactions = new ConcurrentHashMap<>();
+    // Per-account daily rollups maintained on every write, so range queries touch one entry per day
+    private final Map<String, NavigableMap<LocalDate, DailySummary>> accountDailySummaries = new ConcurrentHashMap<>();
+    // Writers to an account hold its write lock; readers needing balance and history together validate optimistically
+    private final Map<String, StampedLock> accountLocks = new ConcurrentHashMap<>();
+    // Accounts written since the last drain, consumed by incremental reconciliation
+    private final Set<String> changedAccounts = ConcurrentHashMap.newKeySet();
+    // Balances of high-contention accounts; the balance stored in accounts stays zero for these
+    private final Map<String, StripedBalance> stripedBalances = new ConcurrentHashMap<>();
+    // Stamps new transactions, and so decides the day each one is rolled up under
+    private final Clock clock;
+
+    public LedgerService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    LedgerService(Clock clock) {
+        this.clock = clock;
+    }
 
     public Account createAccount(String name) {
+        return createAccount(name, false);
+    }
+
+    /**
+     * Creates an account. A high-contention account takes deposits without locking, spreading them across
+     * striped sub-balances; withdrawals still lock the account and are checked against the merged balance.
+     */
+    public Account createAccount(String name, boolean highContention) {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Account name cannot be empty");
         }
         String id = UUID.randomUUID().toString();
         Account account = new Account(id, name, BigDecimal.ZERO);
-        accounts.put(id, account);
-        accountTransactions.put(id, new CopyOnWriteArrayList<>());
+        accountLocks.put(id, new StampedLock());
+        registerAccount(account, highContention);
         return account;
     }
 
+    /**
+     * Creates an account under a caller-chosen id, for bulk imports.
+     */
+    public Account importAccount(String id, String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Account name cannot be empty");
+        }
+        if (id == null || !ACCOUNT_ID_PATTERN.matcher(id).matches()) {
+            throw new IllegalArgumentException("Account id must be 1-64 letters, digits, '-' or '_': " + id);
+        }
+        Account account = new Account(id, name, BigDecimal.ZERO);
+        if (accountLocks.putIfAbsent(id, new StampedLock()) != null) {
+            throw new IllegalArgumentException("Account already exists: " + id);
+        }
+        registerAccount(account, false);
+        return account;
+    }
+
+    private void registerAccount(Account account, boolean highContention) {
+        StripedBalance striped = highContention ? new StripedBalance() : null;
+        accountTransactions.put(account.id(), new TransactionHistory(striped != null ? striped.stripes() : 0));
+        accountDailySummaries.put(account.id(), new ConcurrentSkipListMap<>());
+        if (striped != null) {
+            stripedBalances.put(account.id(), striped);
+        }
+        accounts.put(account.id(), account);
+    }
+
     public Account getAccount(String accountId) {
         Account account = accounts.get(accountId);
         if (account == null) {
             throw new IllegalArgumentException("Account not found: " + accountId);
         }
-        return account;
+        return withCurrentBalance(account);
     }
 
     public List<Account> getAllAccounts() {
-        return new ArrayList<>(accounts.values());
+        List<Account> result = new ArrayList<>(accounts.size());
+        for (Account account : accounts.values()) {
+            result.add(withCurrentBalance(account));
+        }
+        return result;
+    }
+
+    public boolean isHighContention(String accountId) {
+        getAccount(accountId);
+        return stripedBalances.containsKey(accountId);
     }
 
-    public synchronized List<Transaction> transferMoney(String fromAccountId, String toAccountId, 
+    public List<String> getAllAccountIds() {
+        return new ArrayList<>(accounts.keySet());
+    }
+
+    public List<Transaction> transferMoney(String fromAccountId, String toAccountId, 
                                                       BigDecimal amount, String description) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Transfer amount must be positive");
@@ -52,20 +134,24 @@ public class LedgerService {
             throw new IllegalArgumentException("Insufficient funds in source account");
         }
 
+        String transferId = UUID.randomUUID().toString();
+
         // Create withdrawal transaction
-        Transaction withdrawalTx = recordTransaction(
+        Transaction withdrawalTx = appendTransaction(
             fromAccountId, 
             amount, 
             Transaction.TransactionType.WITHDRAWAL, 
-            "Transfer to " + toAccount.name() + ": " + description
+            "Transfer to " + toAccount.name() + ": " + description,
+            transferId
         );
 
         // Create deposit transaction
-        Transaction depositTx = recordTransaction(
+        Transaction depositTx = appendTransaction(
             toAccountId, 
             amount, 
             Transaction.TransactionType.DEPOSIT, 
-            "Transfer from " + fromAccount.name() + ": " + description
+            "Transfer from " + fromAccount.name() + ": " + description,
+            transferId
         );
 
         return List.of(withdrawalTx, depositTx);
@@ -73,25 +159,161 @@ public class LedgerService {
 
     public Transaction recordTransaction(String accountId, BigDecimal amount, 
                                       Transaction.TransactionType type, String description) {
-        Account account = getAccount(accountId);
-        BigDecimal newBalance;
+        return appendTransaction(accountId, amount, type, description, null);
+    }
+
+    private Transaction appendTransaction(String accountId, BigDecimal amount, Transaction.TransactionType type,
+                                          String description, String transferId) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be positive");
+        }
+        StripedBalance striped = stripedBalances.get(accountId);
+        if (striped != null && type == Transaction.TransactionType.DEPOSIT) {
+            return appendStripedDeposit(accountId, amount, description, transferId, striped);
+        }
+
+        StampedLock lock = getAccountLock(accountId);
+        long stamp = lock.writeLock();
+        try {
+            Account account = getAccount(accountId);
+            BigDecimal newBalance;
+
+            if (type == Transaction.TransactionType.WITHDRAWAL && account.balance().compareTo(amount) < 0) {
+                throw new IllegalArgumentException("Insufficient funds in account: " + accountId);
+            }
+
+            newBalance = switch (type) {
+                case DEPOSIT -> account.balance().add(amount);
+                case WITHDRAWAL -> account.balance().subtract(amount);
+            };
+
+            String transactionId = UUID.randomUUID().toString();
+            Transaction transaction = new Transaction(
+                transactionId, accountId, amount, type, description, LocalDateTime.now(clock), transferId);
 
-        if (type == Transaction.TransactionType.WITHDRAWAL && account.balance().compareTo(amount) < 0) {
-            throw new IllegalArgumentException("Insufficient funds in account: " + accountId);
+            if (striped != null) {
+                // Withdrawals are serialized by the write lock and deposits only add, so the checked funds stay there
+                striped.subtract(amount);
+            } else {
+                accounts.put(accountId, account.withBalance(newBalance));
+            }
+            accountTransactions.get(accountId).append(transaction);
+            accountDailySummaries.get(accountId)
+                .merge(transaction.timestamp().toLocalDate(), DailySummary.of(transaction), DailySummary::plus);
+            changedAccounts.add(accountId);
+
+            return transaction;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Transaction appendStripedDeposit(String accountId, BigDecimal amount, String description,
+                                             String transferId, StripedBalance striped) {
+        int stripe = striped.beginDeposit();
+        try {
+            Transaction transaction = new Transaction(randomTransactionId(), accountId, amount,
+                Transaction.TransactionType.DEPOSIT, description, LocalDateTime.now(clock), transferId);
+            // History first, so a balance read never includes a deposit its history does not show yet
+            accountTransactions.get(accountId).appendToStripe(stripe, transaction);
+            striped.rollup(stripe)
+                .merge(transaction.timestamp().toLocalDate(), DailySummary.of(transaction), DailySummary::plus);
+            striped.add(stripe, amount);
+            changedAccounts.add(accountId);
+            return transaction;
+        } finally {
+            striped.completeDeposit(stripe);
         }
+    }
 
-        newBalance = switch (type) {
-            case DEPOSIT -> account.balance().add(amount);
-            case WITHDRAWAL -> account.balance().subtract(amount);
-        };
+    /**
+     * Records historical transactions of one account in order, in a single step under the account lock.
+     * Transactions that are not positive or that the running balance cannot cover are skipped and returned;
+     * all others are recorded as given, keeping their ids and timestamps.
+     */
+    public List<Transaction> importTransactions(String accountId, List<Transaction> transactions) {
+        StampedLock lock = getAccountLock(accountId);
+        long stamp = lock.writeLock();
+        try {
+            BigDecimal initialBalance = getAccount(accountId).balance();
+            BigDecimal balance = initialBalance;
+            List<Transaction> accepted = new ArrayList<>(transactions.size());
+            List<Transaction> rejected = new ArrayList<>();
+            Map<LocalDate, DailySummary> days = new HashMap<>();
+            for (Transaction transaction : transactions) {
+                if (!accountId.equals(transaction.accountId()) || transaction.amount().signum() <= 0
+                        || balance.add(transaction.signedAmount()).signum() < 0) {
+                    rejected.add(transaction);
+                    continue;
+                }
+                balance = balance.add(transaction.signedAmount());
+                accepted.add(transaction);
+                days.merge(transaction.timestamp().toLocalDate(), DailySummary.of(transaction), DailySummary::plus);
+            }
 
-        String transactionId = UUID.randomUUID().toString();
-        Transaction transaction = new Transaction(transactionId, accountId, amount, type, description);
-        
-        accounts.put(accountId, account.withBalance(newBalance));
-        accountTransactions.get(accountId).add(transaction);
-        
-        return transaction;
+            recordImported(accountId, accepted, initialBalance, balance, days);
+            return rejected;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Records both legs of a historical transfer in one step under both account locks, or neither if the
+     * withdrawal leg is not covered by its account's balance. Returns whether the transfer was recorded.
+     */
+    public boolean importTransfer(Transaction withdrawal, Transaction deposit) {
+        if (withdrawal.type() != Transaction.TransactionType.WITHDRAWAL
+                || deposit.type() != Transaction.TransactionType.DEPOSIT
+                || withdrawal.transferId() == null || !withdrawal.transferId().equals(deposit.transferId())
+                || withdrawal.accountId().equals(deposit.accountId())
+                || withdrawal.amount().signum() <= 0 || withdrawal.amount().compareTo(deposit.amount()) != 0) {
+            throw new IllegalArgumentException(
+                "Transfer needs one withdrawal and one deposit of the same positive amount between two accounts");
+        }
+        // Locked in id order, so imports of opposite transfers between the same accounts cannot deadlock
+        boolean withdrawalFirst = withdrawal.accountId().compareTo(deposit.accountId()) < 0;
+        StampedLock firstLock = getAccountLock(withdrawalFirst ? withdrawal.accountId() : deposit.accountId());
+        StampedLock secondLock = getAccountLock(withdrawalFirst ? deposit.accountId() : withdrawal.accountId());
+        long firstStamp = firstLock.writeLock();
+        try {
+            long secondStamp = secondLock.writeLock();
+            try {
+                BigDecimal fromBalance = getAccount(withdrawal.accountId()).balance();
+                if (fromBalance.compareTo(withdrawal.amount()) < 0) {
+                    return false;
+                }
+                BigDecimal toBalance = getAccount(deposit.accountId()).balance();
+                recordImported(withdrawal.accountId(), List.of(withdrawal), fromBalance,
+                    fromBalance.subtract(withdrawal.amount()), Map.of(withdrawal.timestamp().toLocalDate(),
+                        DailySummary.of(withdrawal)));
+                recordImported(deposit.accountId(), List.of(deposit), toBalance, toBalance.add(deposit.amount()),
+                    Map.of(deposit.timestamp().toLocalDate(), DailySummary.of(deposit)));
+                return true;
+            } finally {
+                secondLock.unlockWrite(secondStamp);
+            }
+        } finally {
+            firstLock.unlockWrite(firstStamp);
+        }
+    }
+
+    // Caller holds the account's write lock and has checked the running balance
+    private void recordImported(String accountId, List<Transaction> accepted, BigDecimal initialBalance,
+                                BigDecimal balance, Map<LocalDate, DailySummary> days) {
+        accountTransactions.get(accountId).appendAll(accepted);
+        NavigableMap<LocalDate, DailySummary> summaries = accountDailySummaries.get(accountId);
+        days.forEach((date, summary) -> summaries.merge(date, summary, DailySummary::plus));
+        StripedBalance striped = stripedBalances.get(accountId);
+        if (striped != null) {
+            // Concurrent striped deposits only add, so the checked running balance stays covered
+            striped.subtract(initialBalance.subtract(balance));
+        } else {
+            accounts.put(accountId, accounts.get(accountId).withBalance(balance));
+        }
+        if (!accepted.isEmpty()) {
+            changedAccounts.add(accountId);
+        }
     }
 
     public BigDecimal getBalance(String accountId) {
@@ -99,9 +321,170 @@ public class LedgerService {
     }
 
     public List<Transaction> getTransactionHistory(String accountId) {
-        if (!accountTransactions.containsKey(accountId)) {
+        return getHistory(accountId).readAll();
+    }
+
+    public List<Transaction> getTransactionHistory(String accountId, int fromIndex, int toIndex) {
+        TransactionHistory history = getHistory(accountId);
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            throw new IllegalArgumentException("Invalid history range: " + fromIndex + ".." + toIndex);
+        }
+        return history.read(fromIndex, toIndex);
+    }
+
+    /**
+     * Moves the oldest in-memory transactions of an account into a compressed segment once at least
+     * {@code minBatch} of them are older than {@code olderThan} or beyond the newest {@code maxHotTransactions}.
+     * The newest cold segments are merged into the new one while each is no larger than everything merged so
+     * far, up to {@code maxSegmentTransactions}, so an account keeps a logarithmic number of segments.
+     * Appends carry on while the segment is written. Must not be called concurrently for the same account.
+     */
+    public int moveToColdTier(String accountId, LocalDateTime olderThan, int maxHotTransactions, int minBatch,
+                              int maxSegmentTransactions, SegmentStore segmentStore) throws IOException {
+        TransactionHistory history = getHistory(accountId);
+        List<Transaction> candidates = history.coldCandidates(olderThan, maxHotTransactions);
+        if (candidates.isEmpty() || candidates.size() < minBatch) {
+            return 0;
+        }
+        List<ColdSegment> cold = history.coldSegments();
+        int firstMerged = cold.size();
+        long mergedSize = candidates.size();
+        while (firstMerged > 0 && cold.get(firstMerged - 1).size() <= mergedSize
+                && mergedSize + cold.get(firstMerged - 1).size() <= maxSegmentTransactions) {
+            mergedSize += cold.get(--firstMerged).size();
+        }
+        List<ColdSegment> replaced = cold.subList(firstMerged, cold.size());
+        List<Transaction> run = candidates;
+        if (!replaced.isEmpty()) {
+            run = new ArrayList<>((int) mergedSize);
+            for (ColdSegment segment : replaced) {
+                run.addAll(segment.readAll());
+            }
+            run.addAll(candidates);
+        }
+        ColdSegment segment = segmentStore.write(accountId, history.coldSize() - (run.size() - candidates.size()), run);
+        history.promote(segment, replaced.size());
+        for (ColdSegment merged : replaced) {
+            segmentStore.delete(merged);
+        }
+        return candidates.size();
+    }
+
+    /**
+     * Reads an account's balance together with the number of transactions behind it. Uses optimistic
+     * reads so writers are not blocked, falling back to a read lock only if the account never goes quiet.
+     * Deposits to a high-contention account cannot be held off, so if one is always in progress the
+     * snapshot comes back unsettled and should be retried later.
+     */
+    public AccountSnapshot snapshotAccount(String accountId) {
+        StampedLock lock = getAccountLock(accountId);
+        TransactionHistory history = accountTransactions.get(accountId);
+        StripedBalance striped = stripedBalances.get(accountId);
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            long depositStamp = striped == null ? 0 : striped.quiescentStamp();
+            if (stamp != 0 && depositStamp >= 0) {
+                Account account = getAccount(accountId);
+                int transactionCount = history.size();
+                if ((striped == null || striped.validate(depositStamp)) && lock.validate(stamp)) {
+                    return new AccountSnapshot(account, transactionCount);
+                }
+            }
+            Thread.onSpinWait();
+        }
+        if (striped != null) {
+            return new AccountSnapshot(getAccount(accountId), history.size(), false);
+        }
+        long stamp = lock.readLock();
+        try {
+            return new AccountSnapshot(accounts.get(accountId), history.size());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns and forgets the accounts written since the previous call.
+     */
+    public Set<String> drainChangedAccounts() {
+        Set<String> drained = new HashSet<>();
+        for (Iterator<String> iterator = changedAccounts.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    public List<DailySummary> getDailySummaries(String accountId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, DailySummary> summaries = accountDailySummaries.get(accountId);
+        if (summaries == null) {
             throw new IllegalArgumentException("Account not found: " + accountId);
         }
-        return new ArrayList<>(accountTransactions.get(accountId));
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Summary start date must not be after end date");
+        }
+        StripedBalance striped = stripedBalances.get(accountId);
+        if (striped == null) {
+            return new ArrayList<>(range(summaries, from, to).values());
+        }
+        NavigableMap<LocalDate, DailySummary> merged = new TreeMap<>(range(summaries, from, to));
+        for (NavigableMap<LocalDate, DailySummary> rollup : striped.rollups()) {
+            range(rollup, from, to).forEach((date, summary) -> merged.merge(date, summary, DailySummary::plus));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * A random version 4 UUID drawn from {@link ThreadLocalRandom}. {@link UUID#randomUUID()} serializes every
+     * caller on one shared {@code SecureRandom}, which would undo the striping of high-contention deposits.
+     * Transaction ids only need to be unique, not unpredictable.
+     */
+    static String randomTransactionId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xCL << 60)) | (0x8L << 60);
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    private static NavigableMap<LocalDate, DailySummary> range(NavigableMap<LocalDate, DailySummary> summaries,
+                                                               LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, DailySummary> range = summaries;
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        return range;
+    }
+
+    private Account withCurrentBalance(Account account) {
+        StripedBalance striped = stripedBalances.get(account.id());
+        return striped == null ? account : account.withBalance(striped.sum());
+    }
+
+    private TransactionHistory getHistory(String accountId) {
+        TransactionHistory history = accountTransactions.get(accountId);
+        if (history == null) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
+        return history;
+    }
+
+    private StampedLock getAccountLock(String accountId) {
+        StampedLock lock = accountLocks.get(accountId);
+        if (lock == null) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
+        return lock;
+    }
+
+    /**
+     * @param settled false if deposits kept arriving and balance and count may not match
+     */
+    public record AccountSnapshot(Account account, int transactionCount, boolean settled) {
+        public AccountSnapshot(Account account, int transactionCount) {
+            this(account, transactionCount, true);
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
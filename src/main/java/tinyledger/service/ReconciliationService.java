@@ -0,0 +1,263 @@
+package tinyledger.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tinyledger.model.ReconciliationBreak;
+import tinyledger.model.ReconciliationReport;
+import tinyledger.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks ledger invariants: each account's history sums to its balance, no balance is negative and both
+ * legs of every transfer carry the same amount. Accounts are partitioned across a fork-join pool and read
+ * through {@link LedgerService#snapshotAccount}, so writers keep going while a run is in progress.
+ * <p>
+ * Incremental runs only look at accounts written since the previous run and only sum the transactions
+ * appended since that account's last checkpoint. A transfer leg whose counterpart was not seen yet is kept
+ * pending for one more run, since the counterpart account is then guaranteed to be re-checked. A
+ * high-contention account that never paused between deposits long enough for a snapshot is deferred to the
+ * next run rather than reported, and while any account is deferred single legs stay pending, as their
+ * counterpart may be among its unchecked transactions.
+ */
+@Service
+public class ReconciliationService {
+    private static final int PARTITION_SIZE = 256;
+    private static final int MAX_REPORTED_BREAKS = 1000;
+
+    private final LedgerService ledgerService;
+    private final ForkJoinPool pool;
+    private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+    private final Map<String, TransferTally> openTransfers = new ConcurrentHashMap<>();
+    private final Set<String> deferredAccounts = ConcurrentHashMap.newKeySet();
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong lastBreakCount = new AtomicLong();
+    private final AtomicInteger lastPendingTransfers = new AtomicInteger();
+    private final Counter accountsChecked;
+    private final Counter transactionsChecked;
+    private long runNumber;
+    private volatile ReconciliationReport lastReport;
+
+    public ReconciliationService(LedgerService ledgerService, MeterRegistry meterRegistry,
+                                 @Value("${tinyledger.reconciliation.parallelism:0}") int parallelism) {
+        this.ledgerService = ledgerService;
+        this.meterRegistry = meterRegistry;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.accountsChecked = Counter.builder("ledger.reconciliation.accounts.checked")
+            .description("Accounts checked by reconciliation runs")
+            .register(meterRegistry);
+        this.transactionsChecked = Counter.builder("ledger.reconciliation.transactions.checked")
+            .description("Transactions summed by reconciliation runs")
+            .register(meterRegistry);
+        Gauge.builder("ledger.reconciliation.breaks", lastBreakCount, AtomicLong::get)
+            .description("Invariant breaks found by the most recent reconciliation run")
+            .register(meterRegistry);
+        Gauge.builder("ledger.reconciliation.transfers.pending", lastPendingTransfers, AtomicInteger::get)
+            .description("Transfers with one leg seen, awaiting the next run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${tinyledger.reconciliation.incremental-interval:PT30S}",
+               fixedDelayString = "${tinyledger.reconciliation.incremental-interval:PT30S}")
+    public void scheduledIncrementalRun() {
+        runIncremental();
+    }
+
+    @Scheduled(initialDelayString = "${tinyledger.reconciliation.full-interval:PT1H}",
+               fixedDelayString = "${tinyledger.reconciliation.full-interval:PT1H}")
+    public void scheduledFullRun() {
+        runFull();
+    }
+
+    public synchronized ReconciliationReport runFull() {
+        // Anything written from here on is picked up by the next incremental run
+        ledgerService.drainChangedAccounts();
+        checkpoints.clear();
+        openTransfers.clear();
+        deferredAccounts.clear();
+        return run(ReconciliationReport.Mode.FULL, ledgerService.getAllAccountIds());
+    }
+
+    public synchronized ReconciliationReport runIncremental() {
+        Set<String> accountIds = ledgerService.drainChangedAccounts();
+        accountIds.addAll(deferredAccounts);
+        deferredAccounts.clear();
+        return run(ReconciliationReport.Mode.INCREMENTAL, new ArrayList<>(accountIds));
+    }
+
+    public Optional<ReconciliationReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    private ReconciliationReport run(ReconciliationReport.Mode mode, List<String> accountIds) {
+        long started = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long run = ++runNumber;
+
+        RunState state = new RunState(run);
+        pool.invoke(new CheckPartition(accountIds, 0, accountIds.size(), state));
+        settleTransfers(state);
+
+        List<ReconciliationBreak> breaks = new ArrayList<>(state.breaks);
+        long breakCount = breaks.size();
+        if (breaks.size() > MAX_REPORTED_BREAKS) {
+            breaks = new ArrayList<>(breaks.subList(0, MAX_REPORTED_BREAKS));
+        }
+
+        long durationNanos = System.nanoTime() - started;
+        ReconciliationReport report = new ReconciliationReport(
+            mode,
+            startedAt,
+            TimeUnit.NANOSECONDS.toMillis(durationNanos),
+            state.accounts.sum(),
+            state.transactions.sum(),
+            openTransfers.size(),
+            deferredAccounts.size(),
+            breakCount,
+            List.copyOf(breaks));
+
+        accountsChecked.increment(report.accountsChecked());
+        transactionsChecked.increment(report.transactionsChecked());
+        lastBreakCount.set(breakCount);
+        lastPendingTransfers.set(report.pendingTransfers());
+        Timer.builder("ledger.reconciliation.duration")
+            .description("Wall-clock time of reconciliation runs")
+            .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        lastReport = report;
+        return report;
+    }
+
+    private void checkAccount(String accountId, RunState state) {
+        LedgerService.AccountSnapshot snapshot;
+        try {
+            snapshot = ledgerService.snapshotAccount(accountId);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        if (!snapshot.settled()) {
+            deferredAccounts.add(accountId);
+            return;
+        }
+        Checkpoint checkpoint = checkpoints.get(accountId);
+        if (checkpoint == null || checkpoint.transactionCount() > snapshot.transactionCount()) {
+            checkpoint = Checkpoint.EMPTY;
+        }
+
+        BigDecimal historySum = checkpoint.historySum();
+        List<Transaction> appended = ledgerService.getTransactionHistory(
+            accountId, checkpoint.transactionCount(), snapshot.transactionCount());
+        for (Transaction transaction : appended) {
+            historySum = historySum.add(transaction.signedAmount());
+            if (transaction.transferId() != null) {
+                openTransfers.merge(transaction.transferId(),
+                    new TransferTally(1, transaction.signedAmount(), accountId, state.run),
+                    TransferTally::plus);
+            }
+        }
+
+        BigDecimal balance = snapshot.account().balance();
+        if (historySum.compareTo(balance) != 0) {
+            state.breaks.add(new ReconciliationBreak(ReconciliationBreak.BreakType.BALANCE_MISMATCH, accountId, null,
+                "History sums to " + historySum + " but balance is " + balance));
+        }
+        if (balance.signum() < 0) {
+            state.breaks.add(new ReconciliationBreak(ReconciliationBreak.BreakType.NEGATIVE_BALANCE, accountId, null,
+                "Balance is " + balance));
+        }
+
+        checkpoints.put(accountId, new Checkpoint(snapshot.transactionCount(), historySum));
+        state.accounts.increment();
+        state.transactions.add(appended.size());
+    }
+
+    private void settleTransfers(RunState state) {
+        for (Iterator<Map.Entry<String, TransferTally>> iterator = openTransfers.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, TransferTally> entry = iterator.next();
+            TransferTally tally = entry.getValue();
+            if (tally.legs() == 2 && tally.net().signum() == 0) {
+                iterator.remove();
+            } else if (tally.legs() >= 2) {
+                state.breaks.add(new ReconciliationBreak(ReconciliationBreak.BreakType.UNBALANCED_TRANSFER,
+                    tally.accountId(), entry.getKey(), tally.legs() + " legs netting to " + tally.net()));
+                iterator.remove();
+            } else if (tally.firstSeenRun() < state.run && deferredAccounts.isEmpty()) {
+                state.breaks.add(new ReconciliationBreak(ReconciliationBreak.BreakType.UNBALANCED_TRANSFER,
+                    tally.accountId(), entry.getKey(), "Counterpart leg missing"));
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record Checkpoint(int transactionCount, BigDecimal historySum) {
+        static final Checkpoint EMPTY = new Checkpoint(0, BigDecimal.ZERO);
+    }
+
+    private record TransferTally(int legs, BigDecimal net, String accountId, long firstSeenRun) {
+        TransferTally plus(TransferTally other) {
+            return new TransferTally(legs + other.legs, net.add(other.net), accountId,
+                Math.min(firstSeenRun, other.firstSeenRun));
+        }
+    }
+
+    private static final class RunState {
+        final long run;
+        final Queue<ReconciliationBreak> breaks = new ConcurrentLinkedQueue<>();
+        final LongAdder accounts = new LongAdder();
+        final LongAdder transactions = new LongAdder();
+
+        RunState(long run) {
+            this.run = run;
+        }
+    }
+
+    private final class CheckPartition extends RecursiveAction {
+        private final List<String> accountIds;
+        private final int from;
+        private final int to;
+        private final RunState state;
+
+        CheckPartition(List<String> accountIds, int from, int to, RunState state) {
+            this.accountIds = accountIds;
+            this.from = from;
+            this.to = to;
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARTITION_SIZE) {
+                for (int i = from; i < to; i++) {
+                    checkAccount(accountIds.get(i), state);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new CheckPartition(accountIds, from, middle, state),
+                new CheckPartition(accountIds, middle, to, state));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package tinyledger.service;
+
+import tinyledger.model.DailySummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Balance of a high-contention account split across stripes, in the manner of {@link java.util.concurrent.atomic.LongAdder}.
+ * Each deposit lands on a randomly chosen stripe so concurrent depositors rarely touch the same cache line;
+ * the balance is the sum of all stripes. Daily rollups are striped the same way.
+ * <p>
+ * Deposits bracket their work with {@link #beginDeposit} and {@link #completeDeposit}. Readers that need the
+ * balance to match the history exactly take a {@link #quiescentStamp} and {@link #validate} it afterwards,
+ * which succeeds only if no deposit was in progress in between.
+ */
+final class StripedBalance {
+    // Slots between stripes so that neighbouring stripes never share a cache line
+    private static final int STRIDE = 16;
+    private static final int MAX_STRIPES = 64;
+
+    private final int mask;
+    private final AtomicReferenceArray<BigDecimal> balances;
+    // Per stripe: deposits started at [stripe * STRIDE], deposits completed at [stripe * STRIDE + 1]
+    private final AtomicLongArray counters;
+    private final List<NavigableMap<LocalDate, DailySummary>> rollups;
+
+    StripedBalance() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    StripedBalance(int minStripes) {
+        int stripes = Integer.highestOneBit(Math.min(Math.max(minStripes, 1), MAX_STRIPES) * 2 - 1);
+        this.mask = stripes - 1;
+        this.balances = new AtomicReferenceArray<>(stripes * STRIDE);
+        this.counters = new AtomicLongArray(stripes * STRIDE);
+        this.rollups = new ArrayList<>(stripes);
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            balances.set(stripe * STRIDE, BigDecimal.ZERO);
+            rollups.add(new ConcurrentSkipListMap<>());
+        }
+    }
+
+    int stripes() {
+        return mask + 1;
+    }
+
+    /**
+     * Picks a stripe for a deposit and marks the deposit as in progress on it.
+     */
+    int beginDeposit() {
+        int stripe = ThreadLocalRandom.current().nextInt() & mask;
+        counters.getAndIncrement(stripe * STRIDE);
+        return stripe;
+    }
+
+    void add(int stripe, BigDecimal amount) {
+        balances.accumulateAndGet(stripe * STRIDE, amount, BigDecimal::add);
+    }
+
+    void completeDeposit(int stripe) {
+        counters.getAndIncrement(stripe * STRIDE + 1);
+    }
+
+    /**
+     * Debits the balance. Callers check {@link #sum()} first and serialize debits among themselves; since
+     * concurrent deposits only ever add, the balance cannot drop below what was checked.
+     */
+    void subtract(BigDecimal amount) {
+        add(ThreadLocalRandom.current().nextInt() & mask, amount.negate());
+    }
+
+    BigDecimal sum() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            sum = sum.add(balances.get(stripe * STRIDE));
+        }
+        return sum;
+    }
+
+    NavigableMap<LocalDate, DailySummary> rollup(int stripe) {
+        return rollups.get(stripe);
+    }
+
+    List<NavigableMap<LocalDate, DailySummary>> rollups() {
+        return rollups;
+    }
+
+    /**
+     * Returns a stamp if no deposit is in progress, or -1 otherwise. Completed counts are read before
+     * started counts, so equal totals mean every stripe was idle when it was looked at.
+     */
+    long quiescentStamp() {
+        long completed = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            completed += counters.get(stripe * STRIDE + 1);
+        }
+        long started = startedDeposits();
+        return started == completed ? started : -1;
+    }
+
+    /**
+     * Returns whether no deposit started since {@code stamp} was taken.
+     */
+    boolean validate(long stamp) {
+        return stamp >= 0 && startedDeposits() == stamp;
+    }
+
+    private long startedDeposits() {
+        long started = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            started += counters.get(stripe * STRIDE);
+        }
+        return started;
+    }
+}
@@ -0,0 +1,224 @@
+package tinyledger.storage;
+
+import tinyledger.model.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable file holding a contiguous run of one account's transactions.
+ * <p>
+ * Layout: deflate-compressed blocks of up to {@link #BLOCK_TRANSACTIONS} transactions, then a sparse index
+ * with one entry per block (first ordinal, offset, compressed and raw length), then a fixed-size trailer.
+ * The index is loaded when the segment is opened; a range read opens the file, reads only the blocks it
+ * overlaps at their (long) offsets and closes it again, so no file handle or mapping outlives the read.
+ */
+public final class ColdSegment {
+    static final int BLOCK_TRANSACTIONS = 128;
+
+    private static final int MAGIC = 0x544C5347;
+    private static final int INDEX_ENTRY_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path file;
+    private final String accountId;
+    private final int size;
+    private final int[] blockFirstOrdinals;
+    private final long[] blockOffsets;
+    private final int[] blockCompressedLengths;
+    private final int[] blockRawLengths;
+
+    private ColdSegment(Path file, String accountId, int size, int[] blockFirstOrdinals,
+                        long[] blockOffsets, int[] blockCompressedLengths, int[] blockRawLengths) {
+        this.file = file;
+        this.accountId = accountId;
+        this.size = size;
+        this.blockFirstOrdinals = blockFirstOrdinals;
+        this.blockOffsets = blockOffsets;
+        this.blockCompressedLengths = blockCompressedLengths;
+        this.blockRawLengths = blockRawLengths;
+    }
+
+    public static ColdSegment write(Path file, String accountId, List<Transaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            throw new IllegalArgumentException("Cannot write an empty segment");
+        }
+        int blockCount = (transactions.size() + BLOCK_TRANSACTIONS - 1) / BLOCK_TRANSACTIONS;
+        ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_BYTES + TRAILER_BYTES);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long offset = 0;
+            for (int first = 0; first < transactions.size(); first += BLOCK_TRANSACTIONS) {
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(raw);
+                for (Transaction transaction : transactions.subList(first, Math.min(first + BLOCK_TRANSACTIONS, transactions.size()))) {
+                    TransactionCodec.encode(transaction, out);
+                }
+                byte[] compressed = deflate(raw.toByteArray());
+                writeFully(channel, ByteBuffer.wrap(compressed));
+                index.putInt(first).putLong(offset).putInt(compressed.length).putInt(raw.size());
+                offset += compressed.length;
+            }
+            index.putInt(blockCount).putInt(transactions.size()).putLong(offset).putInt(MAGIC);
+            index.flip();
+            writeFully(channel, index);
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(file, accountId);
+    }
+
+    public static ColdSegment open(Path file, String accountId) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < TRAILER_BYTES) {
+                throw new IOException("Not a transaction segment: " + file);
+            }
+            ByteBuffer trailer = readFully(channel, length - TRAILER_BYTES, TRAILER_BYTES);
+            if (trailer.getInt(TRAILER_BYTES - Integer.BYTES) != MAGIC) {
+                throw new IOException("Not a transaction segment: " + file);
+            }
+            int blockCount = trailer.getInt(0);
+            int size = trailer.getInt(Integer.BYTES);
+            long indexOffset = trailer.getLong(2 * Integer.BYTES);
+            long indexLength = (long) blockCount * INDEX_ENTRY_BYTES;
+            if (blockCount < 0 || size < 0 || indexOffset < 0 || indexOffset + indexLength != length - TRAILER_BYTES
+                    || indexLength > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt index in segment " + file);
+            }
+
+            ByteBuffer index = readFully(channel, indexOffset, (int) indexLength);
+            int[] firstOrdinals = new int[blockCount];
+            long[] offsets = new long[blockCount];
+            int[] compressedLengths = new int[blockCount];
+            int[] rawLengths = new int[blockCount];
+            for (int block = 0; block < blockCount; block++) {
+                firstOrdinals[block] = index.getInt();
+                offsets[block] = index.getLong();
+                compressedLengths[block] = index.getInt();
+                rawLengths[block] = index.getInt();
+            }
+            return new ColdSegment(file, accountId, size, firstOrdinals, offsets, compressedLengths, rawLengths);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Returns transactions {@code [fromIndex, toIndex)} of this segment, ordinals being relative to its start.
+     */
+    public List<Transaction> read(int fromIndex, int toIndex) {
+        int from = Math.max(fromIndex, 0);
+        int to = Math.min(toIndex, size);
+        List<Transaction> result = new ArrayList<>(Math.max(to - from, 0));
+        if (from >= to) {
+            return result;
+        }
+        int block = Arrays.binarySearch(blockFirstOrdinals, from);
+        if (block < 0) {
+            block = -block - 2;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (; block < blockFirstOrdinals.length && blockFirstOrdinals[block] < to; block++) {
+                int ordinal = blockFirstOrdinals[block];
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(channel, block)))) {
+                    int blockEnd = block + 1 < blockFirstOrdinals.length ? blockFirstOrdinals[block + 1] : size;
+                    for (; ordinal < blockEnd && ordinal < to; ordinal++) {
+                        Transaction transaction = TransactionCodec.decode(accountId, in);
+                        if (ordinal >= from) {
+                            result.add(transaction);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read segment " + file, e);
+        }
+        return result;
+    }
+
+    public List<Transaction> readAll() {
+        return read(0, size);
+    }
+
+    private byte[] inflate(FileChannel channel, int block) throws IOException {
+        byte[] raw = new byte[blockRawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(readFully(channel, blockOffsets[block], blockCompressedLengths[block]));
+            int inflated = 0;
+            while (inflated < raw.length) {
+                int count = inflater.inflate(raw, inflated, raw.length - inflated);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != raw.length) {
+                throw new IOException("Truncated block " + block + " in " + file);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block " + block + " in " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(length);
+        while (data.hasRemaining()) {
+            if (channel.read(data, position + data.position()) < 0) {
+                throw new EOFException("Segment ends before byte " + (position + length));
+            }
+        }
+        return data.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+}
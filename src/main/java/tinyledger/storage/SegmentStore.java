@@ -0,0 +1,63 @@
+package tinyledger.storage;
+
+import tinyledger.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Directory of cold segments, one sub-directory per account, files named after their first ordinal and size
+ * so that a merged segment never replaces a file that readers may still be using.
+ */
+public final class SegmentStore {
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+
+    public SegmentStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    public ColdSegment write(String accountId, int firstOrdinal, List<Transaction> transactions) throws IOException {
+        if (accountId.isEmpty() || !accountId.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Account id cannot be used as a directory name: " + accountId);
+        }
+        Path accountDirectory = Files.createDirectories(directory.resolve(accountId));
+        Path file = accountDirectory.resolve(String.format("%012d-%d%s", firstOrdinal, transactions.size(), SEGMENT_SUFFIX));
+        return ColdSegment.write(file, accountId, transactions);
+    }
+
+    /**
+     * Deletes a segment that has been merged into another one.
+     */
+    public void delete(ColdSegment segment) throws IOException {
+        Files.deleteIfExists(segment.file());
+    }
+
+    /**
+     * Deletes every segment under the directory. The ledger itself lives in memory, so segments left over
+     * from a previous process can no longer be reached.
+     */
+    public void clear() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                String name = path.getFileName().toString();
+                if (Files.isRegularFile(path) && (name.endsWith(SEGMENT_SUFFIX) || name.endsWith(SEGMENT_SUFFIX + ".tmp"))) {
+                    Files.delete(path);
+                } else if (Files.isDirectory(path) && !path.equals(directory) && isEmpty(path)) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private static boolean isEmpty(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package tinyledger.storage;
+
+import tinyledger.model.Transaction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary form of a {@link Transaction} used inside cold segments. The account id is implied by the segment.
+ */
+final class TransactionCodec {
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private TransactionCodec() {
+    }
+
+    static void encode(Transaction transaction, DataOutput out) throws IOException {
+        writeString(transaction.id(), out);
+        byte[] unscaled = transaction.amount().unscaledValue().toByteArray();
+        out.writeInt(transaction.amount().scale());
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeByte(transaction.type().ordinal());
+        writeString(transaction.description(), out);
+        out.writeLong(transaction.timestamp().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(transaction.timestamp().getNano());
+        writeString(transaction.transferId(), out);
+    }
+
+    static Transaction decode(String accountId, DataInput in) throws IOException {
+        String id = readString(in);
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readInt()];
+        in.readFully(unscaled);
+        Transaction.TransactionType type = TYPES[in.readUnsignedByte()];
+        String description = readString(in);
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        String transferId = readString(in);
+        return new Transaction(id, accountId, new BigDecimal(new BigInteger(unscaled), scale), type, description,
+            timestamp, transferId);
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
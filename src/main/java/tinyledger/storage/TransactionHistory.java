@@ -0,0 +1,329 @@
+package tinyledger.storage;
+
+import tinyledger.model.Transaction;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only history of one account: cold segments on disk followed by a hot in-memory tail.
+ * <p>
+ * The hot tail is a linked list of fixed-size chunks. Appenders claim a position with a single atomic
+ * increment and then fill their slot, so appends from many threads never wait for each other or for
+ * {@link #promote}. Readers see a consistent pair of tiers without locking; a slot that is claimed but not
+ * filled yet is waited for, which only takes as long as the appender's store. Calls to {@link #promote}
+ * must be serialized by the caller.
+ * <p>
+ * A striped history also takes appends on per-stripe buffers, each its own cache line, so that concurrent
+ * appenders to one hot account do not even share the claim counter. Buffered transactions join the tail in
+ * timestamp order the next time the history is read, sized or appended to directly.
+ */
+public final class TransactionHistory {
+    static final int CHUNK_SIZE = 1024;
+    // Slots between stripe buffers so that neighbouring stripes never share a cache line
+    private static final int STRIDE = 16;
+
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicReference<Chunk> tail;
+    private volatile Tiers tiers;
+    private final int stripes;
+    // Per stripe, the most recent buffered transaction at [stripe * STRIDE]; null for an unstriped history
+    private final AtomicReferenceArray<Buffered> buffers;
+    private final Object flushLock = new Object();
+
+    public TransactionHistory() {
+        this(0);
+    }
+
+    public TransactionHistory(int stripes) {
+        Chunk first = new Chunk(0);
+        tail = new AtomicReference<>(first);
+        tiers = new Tiers(List.of(), 0, first);
+        this.stripes = stripes;
+        this.buffers = stripes > 0 ? new AtomicReferenceArray<>(stripes * STRIDE) : null;
+    }
+
+    public void append(Transaction transaction) {
+        if (buffers != null) {
+            // After everything buffered so far, so a debit never shows up before the deposits that covered it
+            synchronized (flushLock) {
+                flushLocked();
+                appendRun(List.of(transaction));
+            }
+            return;
+        }
+        int index = claimed.getAndIncrement();
+        Chunk chunk = chunkFor(index);
+        chunk.slots.set(index - chunk.base, transaction);
+    }
+
+    /**
+     * Buffers {@code transaction} on one stripe of a striped history, touching no state shared with the
+     * other stripes.
+     */
+    public void appendToStripe(int stripe, Transaction transaction) {
+        int slot = stripe * STRIDE;
+        Buffered head;
+        do {
+            head = buffers.get(slot);
+        } while (!buffers.compareAndSet(slot, head, new Buffered(transaction, head)));
+    }
+
+    /**
+     * Appends {@code transactions} as one contiguous run, claiming all their positions at once.
+     */
+    public void appendAll(List<Transaction> transactions) {
+        if (buffers != null) {
+            synchronized (flushLock) {
+                flushLocked();
+                appendRun(transactions);
+            }
+            return;
+        }
+        appendRun(transactions);
+    }
+
+    private void appendRun(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        int first = claimed.getAndAdd(transactions.size());
+        Chunk chunk = chunkFor(first);
+        for (int i = 0; i < transactions.size(); i++) {
+            int index = first + i;
+            while (index >= chunk.base + CHUNK_SIZE) {
+                chunk = chunk.nextOrCreate();
+            }
+            chunk.slots.set(index - chunk.base, transactions.get(i));
+        }
+        advanceTail(chunk);
+    }
+
+    public int size() {
+        flush();
+        return claimed.get();
+    }
+
+    public int coldSize() {
+        return tiers.coldCount();
+    }
+
+    public List<Transaction> readAll() {
+        return read(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns transactions {@code [fromIndex, toIndex)} in recording order, across both tiers.
+     */
+    public List<Transaction> read(int fromIndex, int toIndex) {
+        flush();
+        while (true) {
+            Tiers current = tiers;
+            try {
+                return read(current, fromIndex, toIndex);
+            } catch (UncheckedIOException e) {
+                // A segment read from an older set of tiers may have been merged away and deleted since
+                if (tiers == current) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private List<Transaction> read(Tiers current, int fromIndex, int toIndex) {
+        int end = Math.min(toIndex, claimed.get());
+        List<Transaction> result = new ArrayList<>(Math.max(Math.min(end - fromIndex, 1024), 0));
+        if (fromIndex >= end) {
+            return result;
+        }
+
+        int segmentStart = 0;
+        for (ColdSegment segment : current.cold()) {
+            int segmentEnd = segmentStart + segment.size();
+            if (segmentStart >= end) {
+                break;
+            }
+            if (fromIndex < segmentEnd) {
+                result.addAll(segment.read(Math.max(fromIndex - segmentStart, 0), Math.min(end, segmentEnd) - segmentStart));
+            }
+            segmentStart = segmentEnd;
+        }
+
+        Chunk chunk = current.head();
+        for (int index = Math.max(fromIndex, current.coldCount()); index < end; index++) {
+            while (index >= chunk.base + CHUNK_SIZE) {
+                chunk = chunk.awaitNext();
+            }
+            result.add(chunk.await(index - chunk.base));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the oldest hot transactions that are older than {@code olderThan} or beyond the newest
+     * {@code maxHotTransactions}, i.e. the prefix of the hot tail that should move to the cold tier.
+     */
+    public List<Transaction> coldCandidates(LocalDateTime olderThan, int maxHotTransactions) {
+        flush();
+        Tiers current = tiers;
+        int end = claimed.get();
+        int overflow = end - current.coldCount() - maxHotTransactions;
+        List<Transaction> candidates = new ArrayList<>();
+        Chunk chunk = current.head();
+        for (int index = current.coldCount(); index < end; index++) {
+            while (index >= chunk.base + CHUNK_SIZE) {
+                chunk = chunk.awaitNext();
+            }
+            Transaction transaction = chunk.await(index - chunk.base);
+            if (candidates.size() < overflow || transaction.timestamp().isBefore(olderThan)) {
+                candidates.add(transaction);
+            } else {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    public List<ColdSegment> coldSegments() {
+        return tiers.cold();
+    }
+
+    /**
+     * Publishes {@code segment}, which must hold exactly the first {@code segment.size()} hot transactions,
+     * and lets the chunks it covers be collected once no reader uses them.
+     */
+    public void promote(ColdSegment segment) {
+        promote(segment, 0);
+    }
+
+    /**
+     * Publishes {@code segment} in place of the newest {@code replaced} cold segments, which it must hold
+     * followed by exactly the first hot transactions it covers.
+     */
+    public void promote(ColdSegment segment, int replaced) {
+        Tiers current = tiers;
+        List<ColdSegment> kept = current.cold().subList(0, current.cold().size() - replaced);
+        int replacedCount = 0;
+        for (ColdSegment merged : current.cold().subList(kept.size(), current.cold().size())) {
+            replacedCount += merged.size();
+        }
+        int coldCount = current.coldCount() - replacedCount + segment.size();
+        if (coldCount < current.coldCount()) {
+            throw new IllegalStateException("Segment is smaller than the segments it replaces");
+        }
+        if (coldCount > claimed.get()) {
+            throw new IllegalStateException("Segment is larger than the hot tier");
+        }
+        Chunk head = current.head();
+        while (coldCount >= head.base + CHUNK_SIZE) {
+            head = head.awaitNext();
+        }
+        List<ColdSegment> cold = new ArrayList<>(kept);
+        cold.add(segment);
+        tiers = new Tiers(List.copyOf(cold), coldCount, head);
+    }
+
+    private void flush() {
+        if (buffers == null || !hasBuffered()) {
+            return;
+        }
+        synchronized (flushLock) {
+            flushLocked();
+        }
+    }
+
+    private boolean hasBuffered() {
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (buffers.get(stripe * STRIDE) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flushLocked() {
+        List<Transaction> drained = new ArrayList<>();
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (buffers.get(stripe * STRIDE) == null) {
+                continue;
+            }
+            int from = drained.size();
+            for (Buffered buffered = buffers.getAndSet(stripe * STRIDE, null); buffered != null; buffered = buffered.next()) {
+                drained.add(buffered.transaction());
+            }
+            // Each buffer is a stack, newest first
+            Collections.reverse(drained.subList(from, drained.size()));
+        }
+        // Stable, so a stripe's own order survives equal timestamps
+        drained.sort(Comparator.comparing(Transaction::timestamp));
+        appendRun(drained);
+    }
+
+    private Chunk chunkFor(int index) {
+        Chunk chunk = tail.get();
+        if (index < chunk.base) {
+            // A slow appender whose slot lies behind the tail; its chunk is still reachable from the head
+            chunk = tiers.head();
+        }
+        while (index >= chunk.base + CHUNK_SIZE) {
+            chunk = chunk.nextOrCreate();
+        }
+        advanceTail(chunk);
+        return chunk;
+    }
+
+    private void advanceTail(Chunk chunk) {
+        Chunk current = tail.get();
+        while (current.base < chunk.base && !tail.compareAndSet(current, chunk)) {
+            current = tail.get();
+        }
+    }
+
+    private record Tiers(List<ColdSegment> cold, int coldCount, Chunk head) {
+    }
+
+    private record Buffered(Transaction transaction, Buffered next) {
+    }
+
+    private static final class Chunk {
+        final int base;
+        final AtomicReferenceArray<Transaction> slots = new AtomicReferenceArray<>(CHUNK_SIZE);
+        final AtomicReference<Chunk> next = new AtomicReference<>();
+
+        Chunk(int base) {
+            this.base = base;
+        }
+
+        Chunk nextOrCreate() {
+            Chunk existing = next.get();
+            if (existing != null) {
+                return existing;
+            }
+            Chunk created = new Chunk(base + CHUNK_SIZE);
+            return next.compareAndSet(null, created) ? created : next.get();
+        }
+
+        Chunk awaitNext() {
+            Chunk chunk;
+            while ((chunk = next.get()) == null) {
+                Thread.onSpinWait();
+            }
+            return chunk;
+        }
+
+        Transaction await(int slot) {
+            Transaction transaction;
+            while ((transaction = slots.get(slot)) == null) {
+                Thread.onSpinWait();
+            }
+            return transaction;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package tinyledger.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private static AdmissionControl admissionControl(int globalMax, int accountMax, Duration targetLatency) {
+        return new AdmissionControl(new SimpleMeterRegistry(), true, globalMax, 1, accountMax, 1,
+            targetLatency, Duration.ofSeconds(2), Duration.ofSeconds(10), 100);
+    }
+
+    @Test
+    void admit_BeyondAccountLimit_ShouldRejectOnlyThatAccount() {
+        // Given
+        AdmissionControl admissionControl = admissionControl(100, 2, Duration.ofSeconds(1));
+        admissionControl.admit("hot");
+        admissionControl.admit("hot");
+
+        // When
+        AdmissionRejectedException rejection = assertThrows(AdmissionRejectedException.class,
+            () -> admissionControl.admit("hot"));
+
+        // Then
+        assertEquals(Duration.ofSeconds(2), rejection.getRetryAfter());
+        assertDoesNotThrow(() -> admissionControl.admit("cold"));
+        List<HotAccount> hotAccounts = admissionControl.getHotAccounts();
+        assertEquals(1, hotAccounts.size());
+        assertEquals("hot", hotAccounts.get(0).accountId());
+        assertEquals(1, hotAccounts.get(0).shed());
+    }
+
+    @Test
+    void admit_BeyondGlobalLimit_ShouldReject() {
+        // Given
+        AdmissionControl admissionControl = admissionControl(2, 10, Duration.ofSeconds(1));
+        admissionControl.admit("a");
+        admissionControl.admit("b");
+
+        // When/Then
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("c"));
+        assertThrows(AdmissionRejectedException.class, admissionControl::admit);
+    }
+
+    @Test
+    void close_ShouldFreeTheSlot() {
+        // Given
+        AdmissionControl admissionControl = admissionControl(100, 1, Duration.ofSeconds(1));
+
+        // When
+        admissionControl.admit("account").close();
+
+        // Then
+        assertDoesNotThrow(() -> admissionControl.admit("account"));
+    }
+
+    @Test
+    void rejectedTransfer_ShouldNotLeakSlotOfFirstAccount() {
+        // Given
+        AdmissionControl admissionControl = admissionControl(100, 1, Duration.ofSeconds(1));
+        AdmissionControl.Permit busy = admissionControl.admit("to");
+
+        // When
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("from", "to"));
+        busy.close();
+
+        // Then
+        assertDoesNotThrow(() -> admissionControl.admit("from", "to"));
+    }
+
+    @Test
+    void evictIdleAccounts_AfterHotWindow_ShouldForgetAccountsThatShed() throws Exception {
+        // Given
+        AdmissionControl admissionControl = new AdmissionControl(new SimpleMeterRegistry(), true, 100, 1, 1, 1,
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofMillis(200), 100);
+        AdmissionControl.Permit busy = admissionControl.admit("hot");
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("hot"));
+        busy.close();
+        assertEquals(1, admissionControl.trackedAccounts());
+        assertEquals(1, admissionControl.getHotAccounts().size());
+
+        // When
+        Thread.sleep(250);
+        admissionControl.evictIdleAccounts();
+
+        // Then
+        assertEquals(0, admissionControl.trackedAccounts());
+        assertTrue(admissionControl.getHotAccounts().isEmpty());
+    }
+
+    @Test
+    void admit_BeyondAccountLimit_ShouldCountShedLoadPerAccountUpToCap() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionControl admissionControl = new AdmissionControl(meterRegistry, true, 100, 1, 1, 1,
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ZERO, 1);
+        AdmissionControl.Permit first = admissionControl.admit("first");
+        AdmissionControl.Permit second = admissionControl.admit("second");
+
+        // When
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("first"));
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("second"));
+        first.close();
+        second.close();
+        admissionControl.evictIdleAccounts();
+        assertThrows(AdmissionRejectedException.class, () -> {
+            try (AdmissionControl.Permit busy = admissionControl.admit("first")) {
+                admissionControl.admit("first");
+            }
+        });
+
+        // Then
+        assertEquals(0, admissionControl.trackedAccounts());
+        assertEquals(2.0, meterRegistry.get("ledger.admission.shed").tag("account", "first").counter().count());
+        assertEquals(1.0, meterRegistry.get("ledger.admission.shed").tag("account", AdmissionControl.OTHER_ACCOUNTS)
+            .counter().count());
+        assertEquals(2, meterRegistry.get("ledger.admission.shed").tag("scope", "account").counters().size());
+    }
+
+    @Test
+    void isIdle_WithReducedLimit_ShouldWaitForQuietWindow() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(1, 10, 1_000_000);
+        assertTrue(limit.tryAcquire());
+        limit.release(0, 2_000_000);
+
+        // When/Then
+        assertFalse(limit.isIdle(1_000_000));
+        assertTrue(limit.isIdle(2_000_000));
+    }
+
+    @Test
+    void slowResponses_ShouldShrinkTheLimitOncePerRoundTrip() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(1, 10, 1_000_000);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            limit.release(0, 2_000_000 + i);
+        }
+        int afterBurst = limit.limit();
+        assertTrue(limit.tryAcquire());
+        limit.release(3_000_000, 5_000_000);
+
+        // Then
+        assertEquals(9, afterBurst);
+        assertEquals(8, limit.limit());
+    }
+
+    @Test
+    void fastResponses_ShouldGrowTheLimitBackUpToMaximum() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(1, 4, 1_000_000);
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release(now, now + 2_000_000);
+            now += 2_000_000;
+        }
+        assertEquals(1, limit.limit());
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(now, now);
+        }
+
+        // Then
+        assertEquals(4, limit.limit());
+    }
+}
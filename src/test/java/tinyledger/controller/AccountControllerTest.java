@@ -12,14 +12,17 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import tinyledger.TinyLedgerApplication;
 import tinyledger.dto.CreateAccountRequest;
 import tinyledger.model.Account;
+import tinyledger.model.DailySummary;
 import tinyledger.service.LedgerService;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -45,7 +48,7 @@ class AccountControllerTest {
     void createAccount_WithValidRequest_ShouldReturnCreatedAccount() throws Exception {
         // Given
         CreateAccountRequest request = new CreateAccountRequest("User Name");
-        when(ledgerService.createAccount(any())).thenReturn(testAccount);
+        when(ledgerService.createAccount(any(), eq(false))).thenReturn(testAccount);
 
         // When/Then
         given()
@@ -60,6 +63,23 @@ class AccountControllerTest {
             .body("balance", equalTo(0));
     }
 
+    @Test
+    void createAccount_WithHighContention_ShouldCreateStripedAccount() throws Exception {
+        // Given
+        CreateAccountRequest request = new CreateAccountRequest("User Name", true);
+        when(ledgerService.createAccount(any(), eq(true))).thenReturn(testAccount);
+
+        // When/Then
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/accounts")
+            .then()
+            .statusCode(200)
+            .body("id", equalTo("User Name"));
+    }
+
     @Test
     void createAccount_WithEmptyName_ShouldReturnBadRequest() throws Exception {
         // Given
@@ -130,4 +150,60 @@ class AccountControllerTest {
             .body("[1].name", equalTo("user2"))
             .body("[1].balance", equalTo(0));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getAccountSummary_WithValidRange_ShouldReturnDailyTotals() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        when(ledgerService.getDailySummaries(eq("User Name"), eq(from), eq(to))).thenReturn(List.of(
+            new DailySummary(LocalDate.of(2024, 1, 2), 2, new BigDecimal("100.00"), new BigDecimal("30.00")),
+            new DailySummary(LocalDate.of(2024, 1, 5), 1, BigDecimal.ZERO, new BigDecimal("20.00"))));
+
+        // When/Then
+        given()
+            .queryParam("from", "2024-01-01")
+            .queryParam("to", "2024-01-31")
+            .when()
+            .get("/api/accounts/User Name/summary")
+            .then()
+            .statusCode(200)
+            .body("accountId", equalTo("User Name"))
+            .body("transactionCount", equalTo(3))
+            .body("totalDeposits", equalTo(100.00f))
+            .body("totalWithdrawals", equalTo(50.00f))
+            .body("days.size()", equalTo(2))
+            .body("days[0].date", equalTo("2024-01-02"))
+            .body("days[0].transactionCount", equalTo(2))
+            .body("days[1].date", equalTo("2024-01-05"));
+    }
+
+    @Test
+    void getAccountSummary_WithReversedRange_ShouldReturnBadRequest() throws Exception {
+        // When/Then
+        given()
+            .queryParam("from", "2024-02-01")
+            .queryParam("to", "2024-01-01")
+            .when()
+            .get("/api/accounts/User Name/summary")
+            .then()
+            .statusCode(400)
+            .body("status", equalTo(400));
+    }
+
+    @Test
+    void getAccountSummary_WithInvalidId_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(ledgerService.getDailySummaries(eq("Invalid Account"), any(), any()))
+            .thenThrow(new IllegalArgumentException("Account not found"));
+
+        // When/Then
+        given()
+            .when()
+            .get("/api/accounts/Invalid Account/summary")
+            .then()
+            .statusCode(404)
+            .body("message", equalTo("Account not found"))
+            .body("status", equalTo(404));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package tinyledger.controller;
+
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import tinyledger.importer.ImportFormat;
+import tinyledger.importer.ImportService;
+import tinyledger.model.ImportReport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ImportControllerTest {
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private ImportService importService;
+
+    private ImportReport completed;
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.port = port;
+        LocalDateTime now = LocalDateTime.now();
+        completed = new ImportReport("import-1", ImportReport.Status.COMPLETED, "CSV", now, now,
+            3, 3, 1, 2, 0, 0, 1500.0, null, List.of());
+    }
+
+    @Test
+    void runImport_WithCsvContentType_ShouldReturnReport() throws Exception {
+        // Given
+        when(importService.runImport(any(), eq(ImportFormat.CSV), isNull())).thenReturn(completed);
+
+        // When/Then
+        given()
+            .contentType("text/csv")
+            .body("account,acc-1,Alice\n")
+            .when()
+            .post("/api/imports")
+            .then()
+            .statusCode(200)
+            .body("importId", equalTo("import-1"))
+            .body("status", equalTo("COMPLETED"))
+            .body("transactionsImported", equalTo(2));
+    }
+
+    @Test
+    void runImport_WhenImportFails_ShouldReturnUnprocessableEntity() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        ImportReport failed = new ImportReport("import-2", ImportReport.Status.FAILED, "NDJSON", now, now,
+            10, 4, 1, 3, 0, 0, 0, "Reading input failed: connection reset", List.of());
+        when(importService.runImport(any(), eq(ImportFormat.NDJSON), isNull())).thenReturn(failed);
+
+        // When/Then
+        given()
+            .queryParam("format", "ndjson")
+            .body("{}\n")
+            .when()
+            .post("/api/imports")
+            .then()
+            .statusCode(422)
+            .body("status", equalTo("FAILED"))
+            .body("committedLine", equalTo(4))
+            .body("failure", equalTo("Reading input failed: connection reset"));
+    }
+
+    @Test
+    void runImport_ResumingUnknownImport_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(importService.getImport("unknown")).thenReturn(Optional.empty());
+
+        // When/Then
+        given()
+            .queryParam("resume", "unknown")
+            .body("{}\n")
+            .when()
+            .post("/api/imports")
+            .then()
+            .statusCode(404)
+            .body("message", equalTo("Import not found: unknown"));
+    }
+
+    @Test
+    void runImport_WhileAnotherImportRuns_ShouldReturnConflict() throws Exception {
+        // Given
+        when(importService.runImport(any(), eq(ImportFormat.NDJSON), isNull()))
+            .thenThrow(new IllegalStateException("Another import is running: import-1"));
+
+        // When/Then
+        given()
+            .queryParam("format", "ndjson")
+            .body("{}\n")
+            .when()
+            .post("/api/imports")
+            .then()
+            .statusCode(409)
+            .body("message", equalTo("Another import is running: import-1"))
+            .body("status", equalTo(409));
+    }
+
+    @Test
+    void getImport_WithKnownId_ShouldReturnReport() throws Exception {
+        // Given
+        when(importService.getImport("import-1")).thenReturn(Optional.of(completed));
+
+        // When/Then
+        given()
+            .when()
+            .get("/api/imports/import-1")
+            .then()
+            .statusCode(200)
+            .body("format", equalTo("CSV"))
+            .body("accountsImported", equalTo(1));
+    }
+}
@@ -1,32 +1,48 @@
 package tinyledger.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
 import tinyledger.TinyLedgerApplication;
+import tinyledger.admission.AdmissionControl;
+import tinyledger.admission.AdmissionRejectedException;
 import tinyledger.dto.TransactionRequest;
 import tinyledger.dto.TransferRequest;
+import tinyledger.json.WireFormat;
 import tinyledger.model.Account;
 import tinyledger.model.Transaction;
 import tinyledger.service.LedgerService;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
 class LedgerControllerTest {
     @LocalServerPort
     private int port;
@@ -34,9 +50,15 @@ class LedgerControllerTest {
     @MockBean
     private LedgerService ledgerService;
 
+    @MockBean
+    private AdmissionControl admissionControl;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MockMvc mockMvc;
+
     private Account testAccount;
     private Transaction testTransaction;
 
@@ -202,4 +224,107 @@ class LedgerControllerTest {
             .body("message", equalTo("Account not found"))
             .body("status", equalTo(404));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getTransactions_WithOffsetAndLimit_ShouldReturnPage() throws Exception {
+        // Given
+        when(ledgerService.getTransactionHistory("User Name", 10, 15))
+            .thenReturn(List.of(testTransaction));
+
+        // When/Then
+        given()
+            .queryParam("offset", 10)
+            .queryParam("limit", 5)
+            .when()
+            .get("/api/transactions/User Name")
+            .then()
+            .statusCode(200)
+            .body("size()", equalTo(1))
+            .body("[0].id", equalTo("tx123"));
+    }
+
+    @Test
+    void getTransactions_ShouldReturnSameBytesAsJackson() throws Exception {
+        // Given
+        Transaction transferLeg = new Transaction("tx124", "User Name", new BigDecimal("12.5"),
+            Transaction.TransactionType.WITHDRAWAL, "Transfer \"rent\"", LocalDateTime.of(2024, 1, 1, 10, 0, 0, 120_000_000),
+            "transfer-1");
+        when(ledgerService.getTransactionHistory("User Name"))
+            .thenReturn(List.of(testTransaction, transferLeg));
+
+        // When/Then
+        mockMvc.perform(get("/api/transactions/{accountId}", "User Name"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().bytes(objectMapper.writeValueAsBytes(List.of(testTransaction, transferLeg))));
+    }
+
+    @Test
+    void getTransactions_WithCompactAcceptOfLowerQuality_ShouldReturnStandardForm() throws Exception {
+        // Given
+        when(ledgerService.getTransactionHistory("User Name"))
+            .thenReturn(List.of(testTransaction));
+
+        // When/Then
+        mockMvc.perform(get("/api/transactions/{accountId}", "User Name")
+                .header(HttpHeaders.ACCEPT, "application/json;q=1, " + WireFormat.COMPACT_VALUE + ";q=0.1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().bytes(objectMapper.writeValueAsBytes(List.of(testTransaction))));
+    }
+
+    @Test
+    void getTransactions_WithCompactAccept_ShouldWriteCompactBody() throws Exception {
+        // Given
+        when(ledgerService.getTransactionHistory("User Name"))
+            .thenReturn(List.of(testTransaction));
+        long epochMillis = testTransaction.timestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // When
+        String body = mockMvc.perform(get("/api/transactions/{accountId}", "User Name").accept(WireFormat.COMPACT_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(WireFormat.COMPACT_VALUE))
+            .andReturn().getResponse().getContentAsString();
+
+        // Then
+        JsonNode transactions = objectMapper.readTree(body);
+        assertEquals(1, transactions.size());
+        assertEquals("tx123", transactions.get(0).get("id").asText());
+        assertEquals(10000, transactions.get(0).get("amount").asLong());
+        assertEquals(epochMillis, transactions.get(0).get("timestamp").asLong());
+        assertEquals("DEPOSIT", transactions.get(0).get("type").asText());
+        assertFalse(transactions.get(0).has("transferId"));
+    }
+
+    @Test
+    void getTransactions_WithNegativeOffset_ShouldReturnBadRequest() throws Exception {
+        // When/Then
+        given()
+            .queryParam("offset", -1)
+            .when()
+            .get("/api/transactions/User Name")
+            .then()
+            .statusCode(400)
+            .body("status", equalTo(400));
+    }
+
+    @Test
+    void deposit_WhenAccountIsOverloaded_ShouldReturnTooManyRequests() throws Exception {
+        // Given
+        TransactionRequest request = new TransactionRequest(new BigDecimal("100.00"), "Deposit");
+        when(admissionControl.admit("User Name"))
+            .thenThrow(new AdmissionRejectedException("Too many requests in flight for account: User Name", Duration.ofSeconds(2)));
+
+        // When/Then
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/transactions/User Name/deposit")
+            .then()
+            .statusCode(429)
+            .header("Retry-After", "2")
+            .body("message", equalTo("Too many requests in flight for account: User Name"))
+            .body("status", equalTo(429));
+    }
+}
\ No newline at end of file
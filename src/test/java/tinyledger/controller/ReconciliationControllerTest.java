@@ -0,0 +1,84 @@
+package tinyledger.controller;
+
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import tinyledger.model.ReconciliationBreak;
+import tinyledger.model.ReconciliationReport;
+import tinyledger.service.ReconciliationService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReconciliationControllerTest {
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private ReconciliationService reconciliationService;
+
+    private ReconciliationReport report;
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.port = port;
+        report = new ReconciliationReport(ReconciliationReport.Mode.FULL, LocalDateTime.now(), 12, 2, 5, 0, 0, 1,
+            List.of(new ReconciliationBreak(ReconciliationBreak.BreakType.BALANCE_MISMATCH, "User Name", null,
+                "History sums to 10.00 but balance is 20.00")));
+    }
+
+    @Test
+    void run_WithFullMode_ShouldReturnReport() throws Exception {
+        // Given
+        when(reconciliationService.runFull()).thenReturn(report);
+
+        // When/Then
+        given()
+            .queryParam("mode", "full")
+            .when()
+            .post("/api/reconciliation/run")
+            .then()
+            .statusCode(200)
+            .body("mode", equalTo("FULL"))
+            .body("accountsChecked", equalTo(2))
+            .body("breakCount", equalTo(1))
+            .body("breaks[0].type", equalTo("BALANCE_MISMATCH"))
+            .body("breaks[0].accountId", equalTo("User Name"));
+    }
+
+    @Test
+    void run_WithUnknownMode_ShouldReturnBadRequest() throws Exception {
+        // When/Then
+        given()
+            .queryParam("mode", "partial")
+            .when()
+            .post("/api/reconciliation/run")
+            .then()
+            .statusCode(400)
+            .body("message", equalTo("Unknown reconciliation mode: partial"))
+            .body("status", equalTo(400));
+    }
+
+    @Test
+    void getLastReport_BeforeAnyRun_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(reconciliationService.getLastReport()).thenReturn(Optional.empty());
+
+        // When/Then
+        given()
+            .when()
+            .get("/api/reconciliation")
+            .then()
+            .statusCode(404)
+            .body("status", equalTo(404));
+    }
+}
@@ -0,0 +1,406 @@
+package tinyledger.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tinyledger.model.ImportReport;
+import tinyledger.model.Transaction;
+import tinyledger.service.HistoryTieringService;
+import tinyledger.service.LedgerService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportServiceTest {
+    private LedgerService ledgerService;
+    private HistoryTieringService tieringService;
+    private ImportService importService;
+
+    @TempDir
+    Path segmentDirectory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ledgerService = new LedgerService();
+        tieringService = new HistoryTieringService(ledgerService, new SimpleMeterRegistry(),
+            false, segmentDirectory, Duration.ofDays(7), 10_000, 1_000, 1_000_000);
+        importService = new ImportService(ledgerService, tieringService, new ObjectMapper(), 2, 2, 10, 100_000);
+    }
+
+    @Test
+    void runImport_WithNdjson_ShouldRecordAccountsAndHistory() {
+        // Given
+        String input = """
+            {"kind":"account","id":"acc-1","name":"Alice"}
+            {"kind":"account","id":"acc-2","name":"Bob"}
+            {"id":"t1","accountId":"acc-1","type":"DEPOSIT","amount":"100.00","timestamp":"2024-01-01T10:00:00","description":"Salary"}
+            {"id":"t2","accountId":"acc-1","type":"WITHDRAWAL","amount":"30.00","timestamp":"2024-01-02T10:00:00"}
+            {"accountId":"acc-2","type":"DEPOSIT","amount":"5.00","timestamp":"2024-01-03T10:00:00"}
+            """;
+
+        // When
+        ImportReport report = importService.runImport(stream(input), ImportFormat.NDJSON, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        assertEquals(2, report.accountsImported());
+        assertEquals(3, report.transactionsImported());
+        assertEquals(0, report.rejectedRecords());
+        assertEquals(5, report.committedLine());
+        assertEquals(0, new BigDecimal("70.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(0, new BigDecimal("5.00").compareTo(ledgerService.getBalance("acc-2")));
+        List<Transaction> history = ledgerService.getTransactionHistory("acc-1");
+        assertEquals(List.of("t1", "t2"), history.stream().map(Transaction::id).toList());
+        assertEquals("Salary", history.get(0).description());
+        assertEquals(report.importId() + "-5", ledgerService.getTransactionHistory("acc-2").get(0).id());
+    }
+
+    @Test
+    void runImport_WithCsv_ShouldSkipHeaderAndRejectUncoveredWithdrawals() {
+        // Given
+        String input = """
+            kind,id,name_or_account,type,amount,timestamp,description,transferId
+            account,acc-1,"Smith, Alice"
+            transaction,t1,acc-1,DEPOSIT,50.00,2024-01-01T10:00:00,"Opening ""balance\"""
+            transaction,t2,acc-1,WITHDRAWAL,80.00,2024-01-02T10:00:00,Rent
+            transaction,t3,acc-1,WITHDRAWAL,20.00,2024-01-03T10:00:00,Groceries
+            transaction,t4,missing,DEPOSIT,1.00,2024-01-03T10:00:00
+            """;
+
+        // When
+        ImportReport report = importService.runImport(stream(input), ImportFormat.CSV, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        assertEquals(2, report.transactionsImported());
+        assertEquals(2, report.rejectedRecords());
+        assertEquals("line 4: Insufficient funds in account: acc-1", report.errors().get(0));
+        assertEquals("Smith, Alice", ledgerService.getAccount("acc-1").name());
+        assertEquals(0, new BigDecimal("30.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals("Opening \"balance\"", ledgerService.getTransactionHistory("acc-1").get(0).description());
+    }
+
+    @Test
+    void runImport_SameInputTwice_ShouldNotTouchExistingAccounts() {
+        // Given
+        String input = """
+            {"kind":"account","id":"acc-1","name":"Alice"}
+            {"id":"t1","accountId":"acc-1","type":"DEPOSIT","amount":"100.00","timestamp":"2024-01-01T10:00:00"}
+            {"id":"t2","accountId":"live","type":"DEPOSIT","amount":"5.00","timestamp":"2024-01-01T10:00:00"}
+            """;
+        String liveId = ledgerService.createAccount("Live").id();
+        input = input.replace("\"live\"", "\"" + liveId + "\"");
+        importService.runImport(stream(input), ImportFormat.NDJSON, null);
+
+        // When
+        ImportReport second = importService.runImport(stream(input), ImportFormat.NDJSON, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, second.status());
+        assertEquals(0, second.accountsImported());
+        assertEquals(0, second.transactionsImported());
+        assertEquals(3, second.rejectedRecords());
+        assertEquals("line 2: Account was not created by this import: acc-1", second.errors().get(1));
+        assertEquals(0, new BigDecimal("100.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(1, ledgerService.getTransactionHistory("acc-1").size());
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.getBalance(liveId)));
+    }
+
+    @Test
+    void runImport_WithUncoveredTransferLeg_ShouldRejectBothLegs() {
+        // Given
+        String input = """
+            account,acc-1,Alice
+            account,acc-2,Bob
+            transaction,t1,acc-1,DEPOSIT,20.00,2024-01-01T10:00:00
+            transaction,t2,acc-1,WITHDRAWAL,50.00,2024-01-02T10:00:00,To Bob,tf-1
+            transaction,t3,acc-2,DEPOSIT,50.00,2024-01-02T10:00:00,From Alice,tf-1
+            transaction,t4,acc-1,WITHDRAWAL,15.00,2024-01-03T10:00:00,To Bob,tf-2
+            transaction,t5,acc-2,DEPOSIT,15.00,2024-01-03T10:00:00,From Alice,tf-2
+            transaction,t6,acc-2,DEPOSIT,1.00,2024-01-04T10:00:00,From Carol,tf-3
+            """;
+
+        // When
+        ImportReport report = importService.runImport(stream(input), ImportFormat.CSV, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        assertEquals(3, report.transactionsImported());
+        assertEquals(List.of(
+            "line 4: Insufficient funds in account: acc-1",
+            "line 5: Insufficient funds in account: acc-1",
+            "line 8: Transfer leg without its counterpart: tf-3"), report.errors());
+        assertEquals(8, report.committedLine());
+        assertEquals(0, new BigDecimal("5.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(0, new BigDecimal("15.00").compareTo(ledgerService.getBalance("acc-2")));
+        assertEquals(List.of("t5"), ledgerService.getTransactionHistory("acc-2").stream().map(Transaction::id).toList());
+    }
+
+    @Test
+    void runImport_WithTransferFollowedByDependentWithdrawal_ShouldApplyInLineOrder() {
+        // Given
+        ImportService singleBatch = new ImportService(ledgerService, tieringService, new ObjectMapper(), 2, 100, 10, 100_000);
+        String input = """
+            account,acc-1,Alice
+            account,acc-2,Bob
+            transaction,t1,acc-1,DEPOSIT,100.00,2024-01-01T10:00:00
+            transaction,t2,acc-1,WITHDRAWAL,30.00,2024-01-02T10:00:00,To Bob,tf-1
+            transaction,t3,acc-1,WITHDRAWAL,70.00,2024-01-02T11:00:00
+            transaction,t4,acc-2,DEPOSIT,30.00,2024-01-02T10:00:00,From Alice,tf-1
+            transaction,t5,acc-2,WITHDRAWAL,10.00,2024-01-03T10:00:00
+            """;
+
+        // When
+        ImportReport report = singleBatch.runImport(stream(input), ImportFormat.CSV, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        assertEquals(List.of(), report.errors());
+        assertEquals(5, report.transactionsImported());
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(0, new BigDecimal("20.00").compareTo(ledgerService.getBalance("acc-2")));
+        assertEquals(List.of("t1", "t2", "t3"), ledgerService.getTransactionHistory("acc-1").stream().map(Transaction::id).toList());
+        assertEquals(List.of("t4", "t5"), ledgerService.getTransactionHistory("acc-2").stream().map(Transaction::id).toList());
+    }
+
+    @Test
+    void runImport_WithTransferLegsInDifferentBatches_ShouldHoldBackLaterTransactions() {
+        // Given
+        String input = """
+            account,acc-1,Alice
+            account,acc-2,Bob
+            transaction,t1,acc-1,DEPOSIT,100.00,2024-01-01T10:00:00
+            transaction,t2,acc-1,WITHDRAWAL,30.00,2024-01-02T10:00:00,To Bob,tf-1
+            transaction,t3,acc-1,WITHDRAWAL,70.00,2024-01-02T11:00:00
+            transaction,t4,acc-2,DEPOSIT,5.00,2024-01-02T09:00:00
+            transaction,t5,acc-1,DEPOSIT,1.00,2024-01-02T12:00:00
+            transaction,t6,acc-2,DEPOSIT,30.00,2024-01-02T10:00:00,From Alice,tf-1
+            transaction,t7,acc-2,WITHDRAWAL,35.00,2024-01-03T10:00:00
+            """;
+
+        // When
+        ImportReport report = importService.runImport(stream(input), ImportFormat.CSV, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        assertEquals(List.of(), report.errors());
+        assertEquals(9, report.committedLine());
+        assertEquals(0, BigDecimal.ONE.compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.getBalance("acc-2")));
+        assertEquals(List.of("t1", "t2", "t3", "t5"), ledgerService.getTransactionHistory("acc-1").stream().map(Transaction::id).toList());
+        assertEquals(List.of("t4", "t6", "t7"), ledgerService.getTransactionHistory("acc-2").stream().map(Transaction::id).toList());
+    }
+
+    @Test
+    void runImport_WithCounterpartBeyondMaxDistance_ShouldRejectLegAndRelease() {
+        // Given
+        ImportService nearTransfers = new ImportService(ledgerService, tieringService, new ObjectMapper(), 2, 2, 10, 3);
+        String input = """
+            account,acc-1,Alice
+            account,acc-2,Bob
+            transaction,t1,acc-1,DEPOSIT,100.00,2024-01-01T10:00:00
+            transaction,t2,acc-1,WITHDRAWAL,30.00,2024-01-02T10:00:00,To Bob,tf-1
+            transaction,t3,acc-1,WITHDRAWAL,10.00,2024-01-02T11:00:00
+            transaction,t4,acc-1,WITHDRAWAL,10.00,2024-01-02T12:00:00
+            transaction,t5,acc-1,WITHDRAWAL,10.00,2024-01-02T13:00:00
+            transaction,t6,acc-1,WITHDRAWAL,10.00,2024-01-02T14:00:00
+            transaction,t7,acc-2,DEPOSIT,30.00,2024-01-02T10:00:00,From Alice,tf-1
+            """;
+
+        // When
+        ImportReport report = nearTransfers.runImport(stream(input), ImportFormat.CSV, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        assertEquals(List.of(
+            "line 4: Transfer leg without its counterpart within 3 lines: tf-1",
+            "line 9: Transfer leg without its counterpart: tf-1"), report.errors());
+        assertEquals(0, new BigDecimal("60.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.getBalance("acc-2")));
+    }
+
+    @Test
+    void runImport_WithCrossedTransfers_ShouldRejectOneAndRecordTheOther() {
+        // Given
+        String input = """
+            account,acc-1,Alice
+            account,acc-2,Bob
+            transaction,t0,acc-2,DEPOSIT,5.00,2024-01-01T09:00:00
+            transaction,t1,acc-1,WITHDRAWAL,1.00,2024-01-01T10:00:00,To Bob,tf-1
+            transaction,t2,acc-2,WITHDRAWAL,2.00,2024-01-01T10:00:00,To Alice,tf-2
+            transaction,t3,acc-1,DEPOSIT,2.00,2024-01-01T10:00:00,From Bob,tf-2
+            transaction,t4,acc-2,DEPOSIT,1.00,2024-01-01T10:00:00,From Alice,tf-1
+            """;
+
+        // When
+        ImportReport report = importService.runImport(stream(input), ImportFormat.CSV, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        assertEquals(List.of(
+            "line 4: Transfer legs are out of order with another transfer: tf-1",
+            "line 7: Transfer legs are out of order with another transfer: tf-1"), report.errors());
+        assertEquals(7, report.committedLine());
+        assertEquals(0, new BigDecimal("2.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(0, new BigDecimal("3.00").compareTo(ledgerService.getBalance("acc-2")));
+    }
+
+    @Test
+    void runImport_ResumingWithTransferLegPending_ShouldRecordBothLegs() throws Exception {
+        // Given
+        ImportService sequential = new ImportService(ledgerService, tieringService, new ObjectMapper(), 1, 1, 10, 100_000);
+        String input = """
+            account,acc-1,Alice
+            account,acc-2,Bob
+            transaction,t1,acc-1,DEPOSIT,100.00,2024-01-01T10:00:00
+            transaction,t2,acc-1,WITHDRAWAL,30.00,2024-01-02T10:00:00,To Bob,tf-1
+            transaction,t3,acc-2,DEPOSIT,5.00,2024-01-02T11:00:00
+            transaction,t4,acc-2,DEPOSIT,30.00,2024-01-02T10:00:00,From Alice,tf-1
+            """;
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        ImportReport failed = sequential.runImport(new FailingInputStream(bytes, input.indexOf("transaction,t4")),
+            ImportFormat.CSV, null);
+        assertEquals(ImportReport.Status.FAILED, failed.status());
+        assertEquals(3, failed.committedLine());
+
+        // When
+        ImportReport resumed = sequential.runImport(new ByteArrayInputStream(bytes), null, failed.importId());
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, resumed.status());
+        assertEquals(0, resumed.rejectedRecords());
+        assertEquals(4, resumed.transactionsImported());
+        assertEquals(0, new BigDecimal("70.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(0, new BigDecimal("35.00").compareTo(ledgerService.getBalance("acc-2")));
+        assertEquals(2, ledgerService.getTransactionHistory("acc-2").size());
+    }
+
+    @Test
+    void runImport_WithTieringEnabled_ShouldWriteOneSegmentPerAccount() throws Exception {
+        // Given
+        ImportService tiered = new ImportService(ledgerService, new HistoryTieringService(ledgerService,
+            new SimpleMeterRegistry(), true, segmentDirectory, Duration.ofDays(7), 1, 1, 1_000_000), new ObjectMapper(), 2, 2, 10, 100_000);
+        StringBuilder input = new StringBuilder("account,acc-1,Alice\n");
+        for (int i = 1; i <= 8; i++) {
+            input.append("transaction,t").append(i).append(",acc-1,DEPOSIT,1.00,2024-01-0").append(i).append("T10:00:00\n");
+        }
+
+        // When
+        ImportReport report = tiered.runImport(stream(input.toString()), ImportFormat.CSV, null);
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, report.status());
+        try (Stream<Path> segments = Files.list(segmentDirectory.resolve("acc-1"))) {
+            assertEquals(1, segments.count());
+        }
+        assertEquals(8, ledgerService.getTransactionHistory("acc-1").size());
+    }
+
+    @Test
+    void runImport_WithTooManyErrors_ShouldFail() {
+        // Given
+        String input = "not json\n".repeat(11);
+
+        // When
+        ImportReport report = importService.runImport(stream(input), ImportFormat.NDJSON, null);
+
+        // Then
+        assertEquals(ImportReport.Status.FAILED, report.status());
+        assertEquals("More than 10 records were rejected", report.failure());
+    }
+
+    @Test
+    void runImport_ResumingAfterTooManyErrors_ShouldContinueWithFreshBudget() {
+        // Given
+        String input = "not json\n".repeat(10) + """
+            {"kind":"account","id":"acc-1","name":"Alice"}
+            not json
+            {"id":"t1","accountId":"acc-1","type":"DEPOSIT","amount":"10.00","timestamp":"2024-01-01T10:00:00"}
+            """;
+        ImportReport failed = importService.runImport(stream(input), ImportFormat.NDJSON, null);
+        assertEquals(ImportReport.Status.FAILED, failed.status());
+        assertEquals(12, failed.committedLine());
+
+        // When
+        ImportReport resumed = importService.runImport(stream(input), null, failed.importId());
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, resumed.status());
+        assertEquals(11, resumed.rejectedRecords());
+        assertEquals(1, resumed.accountsImported());
+        assertEquals(0, new BigDecimal("10.00").compareTo(ledgerService.getBalance("acc-1")));
+    }
+
+    @Test
+    void runImport_ResumingFailedImport_ShouldNotApplyLinesTwice() {
+        // Given
+        StringBuilder input = new StringBuilder("{\"kind\":\"account\",\"id\":\"acc-1\",\"name\":\"Alice\"}\n");
+        for (int i = 1; i <= 20; i++) {
+            input.append("{\"id\":\"t").append(i)
+                .append("\",\"accountId\":\"acc-1\",\"type\":\"DEPOSIT\",\"amount\":\"1.00\",\"timestamp\":\"2024-01-01T10:00:00\"}\n");
+        }
+        byte[] bytes = input.toString().getBytes(StandardCharsets.UTF_8);
+        ImportReport failed = importService.runImport(new FailingInputStream(bytes, bytes.length / 2), null, null);
+        assertEquals(ImportReport.Status.FAILED, failed.status());
+
+        // When
+        ImportReport resumed = importService.runImport(new ByteArrayInputStream(bytes), null, failed.importId());
+
+        // Then
+        assertEquals(ImportReport.Status.COMPLETED, resumed.status());
+        assertEquals(failed.importId(), resumed.importId());
+        assertEquals(21, resumed.committedLine());
+        assertEquals(1, resumed.accountsImported());
+        assertEquals(20, resumed.transactionsImported());
+        assertEquals(0, new BigDecimal("20.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(20, ledgerService.getTransactionHistory("acc-1").size());
+    }
+
+    @Test
+    void runImport_ResumingUnknownOrCompletedImport_ShouldThrowException() {
+        // Given
+        ImportReport completed = importService.runImport(stream("{\"kind\":\"account\",\"id\":\"acc-1\",\"name\":\"Alice\"}\n"),
+            ImportFormat.NDJSON, null);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> importService.runImport(stream(""), null, "unknown"));
+        assertThrows(IllegalArgumentException.class, () ->
+            importService.runImport(stream(""), ImportFormat.CSV, completed.importId()));
+        assertThrows(IllegalStateException.class, () -> importService.runImport(stream(""), null, completed.importId()));
+    }
+
+    private static InputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class FailingInputStream extends InputStream {
+        private final byte[] bytes;
+        private final int failAt;
+        private int position;
+
+        FailingInputStream(byte[] bytes, int failAt) {
+            this.bytes = bytes;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= failAt) {
+                throw new IOException("connection reset");
+            }
+            return position < bytes.length ? bytes[position++] : -1;
+        }
+    }
+}
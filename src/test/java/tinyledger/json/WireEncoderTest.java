@@ -0,0 +1,112 @@
+package tinyledger.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tinyledger.model.Account;
+import tinyledger.model.Transaction;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireEncoderTest {
+    private ObjectMapper objectMapper;
+    private WireEncoder wireEncoder;
+    private Transaction deposit;
+    private Transaction withdrawal;
+
+    @BeforeEach
+    void setUp() {
+        // Same date handling as the mapper Spring Boot configures
+        objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        wireEncoder = new WireEncoder(objectMapper, new SimpleMeterRegistry(), 16, ZoneOffset.UTC);
+        deposit = new Transaction("t1", "acc-1", new BigDecimal("123.45"), Transaction.TransactionType.DEPOSIT,
+            "Salary", LocalDateTime.of(2024, 1, 1, 10, 0));
+        withdrawal = new Transaction("t2", "acc-1", new BigDecimal("20"), Transaction.TransactionType.WITHDRAWAL,
+            "Rent", LocalDateTime.of(2024, 1, 2, 10, 0), "transfer-1");
+    }
+
+    @Test
+    void encode_WithStandardFormat_ShouldMatchObjectMapperOutput() throws Exception {
+        // When
+        byte[] bytes = wireEncoder.encode(withdrawal, WireFormat.STANDARD);
+
+        // Then
+        assertArrayEquals(objectMapper.writeValueAsBytes(withdrawal), bytes);
+    }
+
+    @Test
+    void encode_SameTransactionTwice_ShouldReuseCachedBytes() {
+        // Given
+        byte[] first = wireEncoder.encode(deposit, WireFormat.STANDARD);
+        Transaction decodedCopy = new Transaction(deposit.id(), deposit.accountId(), deposit.amount(), deposit.type(),
+            deposit.description(), deposit.timestamp());
+
+        // When/Then
+        assertSame(first, wireEncoder.encode(deposit, WireFormat.STANDARD));
+        assertSame(first, wireEncoder.encode(decodedCopy, WireFormat.STANDARD));
+        assertNotSame(first, wireEncoder.encode(deposit, WireFormat.COMPACT));
+    }
+
+    @Test
+    void encode_WithCollidingTransactions_ShouldReplaceCachedBytes() throws Exception {
+        // Given
+        WireEncoder singleSlot = new WireEncoder(objectMapper, new SimpleMeterRegistry(), 1, ZoneOffset.UTC);
+
+        // When/Then
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(objectMapper.writeValueAsBytes(deposit), singleSlot.encode(deposit, WireFormat.STANDARD));
+            assertArrayEquals(objectMapper.writeValueAsBytes(withdrawal), singleSlot.encode(withdrawal, WireFormat.STANDARD));
+        }
+    }
+
+    @Test
+    void encode_WithCompactFormat_ShouldUseEpochMillisAndMinorUnits() {
+        // When
+        String json = new String(wireEncoder.encode(deposit, WireFormat.COMPACT), StandardCharsets.UTF_8);
+
+        // Then
+        assertTrue(json.contains("\"amount\":12345"), json);
+        assertTrue(json.contains("\"timestamp\":1704103200000"), json);
+        assertFalse(json.contains("transferId"), json);
+    }
+
+    @Test
+    void toMinorUnits_ShouldKeepAmountsExact() {
+        // When/Then
+        assertEquals("2000", WireEncoder.toMinorUnits(new BigDecimal("20")).toString());
+        assertEquals("12345", WireEncoder.toMinorUnits(new BigDecimal("123.450")).toString());
+        assertEquals("0.5", WireEncoder.toMinorUnits(new BigDecimal("0.005")).toString());
+        assertEquals("0", WireEncoder.toMinorUnits(new BigDecimal("0.00")).toString());
+    }
+
+    @Test
+    void encodeAll_ShouldConcatenateEncodedTransactions() throws Exception {
+        // When
+        byte[] encoded = wireEncoder.encodeAll(List.of(deposit, withdrawal), WireFormat.STANDARD);
+
+        // Then
+        String expected = "[" + new String(objectMapper.writeValueAsBytes(deposit), StandardCharsets.UTF_8) + ","
+            + new String(objectMapper.writeValueAsBytes(withdrawal), StandardCharsets.UTF_8) + "]";
+        assertEquals(expected, new String(encoded, StandardCharsets.UTF_8));
+        assertEquals("[]", new String(wireEncoder.encodeAll(List.of(), WireFormat.COMPACT), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void account_WithCompactFormat_ShouldUseMinorUnits() {
+        // Given
+        Account account = new Account("acc-1", "User Name", new BigDecimal("10.50"));
+
+        // When/Then
+        assertSame(account, wireEncoder.account(account, WireFormat.STANDARD));
+        assertEquals(new WireEncoder.CompactAccount("acc-1", "User Name", WireEncoder.toMinorUnits(new BigDecimal("10.50"))),
+            wireEncoder.account(account, WireFormat.COMPACT));
+    }
+}
@@ -0,0 +1,26 @@
+package tinyledger.json;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatTest {
+    @Test
+    void fromAccept_NamingCompactForm_ShouldPickCompact() {
+        // When/Then
+        assertEquals(WireFormat.COMPACT, WireFormat.fromAccept("application/vnd.tinyledger.compact+json"));
+        assertEquals(WireFormat.COMPACT, WireFormat.fromAccept("application/vnd.tinyledger.compact+json, */*"));
+        assertEquals(WireFormat.COMPACT, WireFormat.fromAccept("application/json;q=0.5, application/vnd.tinyledger.compact+json"));
+    }
+
+    @Test
+    void fromAccept_PreferringStandardForm_ShouldPickStandard() {
+        // When/Then
+        assertEquals(WireFormat.STANDARD, WireFormat.fromAccept(null));
+        assertEquals(WireFormat.STANDARD, WireFormat.fromAccept("*/*"));
+        assertEquals(WireFormat.STANDARD,
+            WireFormat.fromAccept("application/json;q=1, application/vnd.tinyledger.compact+json;q=0.1"));
+        assertEquals(WireFormat.STANDARD, WireFormat.fromAccept("application/vnd.tinyledger.compact+json;q=0"));
+        assertEquals(WireFormat.STANDARD, WireFormat.fromAccept("not a media type"));
+    }
+}
@@ -2,17 +2,38 @@ package tinyledger.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import tinyledger.model.Account;
+import tinyledger.model.DailySummary;
 import tinyledger.model.Transaction;
+import tinyledger.storage.SegmentStore;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class LedgerServiceTest {
     private LedgerService ledgerService;
 
+    @TempDir
+    Path segmentDirectory;
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
     @BeforeEach
     void setUp() {
         ledgerService = new LedgerService();
@@ -162,4 +183,294 @@ class LedgerServiceTest {
         assertThrows(IllegalArgumentException.class, () -> 
             ledgerService.getTransactionHistory("invalid-id"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getDailySummaries_ShouldAggregateTransactionsPerDay() {
+        // Given
+        ledgerService = new LedgerService(fixedClock());
+        Account account = ledgerService.createAccount("User Name");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("25.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("40.00"), Transaction.TransactionType.WITHDRAWAL, "Withdrawal");
+
+        // When
+        List<DailySummary> summaries = ledgerService.getDailySummaries(account.id(), TODAY, TODAY);
+
+        // Then
+        assertEquals(1, summaries.size());
+        assertEquals(TODAY, summaries.get(0).date());
+        assertEquals(3, summaries.get(0).transactionCount());
+        assertEquals(new BigDecimal("125.00"), summaries.get(0).totalDeposits());
+        assertEquals(new BigDecimal("40.00"), summaries.get(0).totalWithdrawals());
+    }
+
+    @Test
+    void getDailySummaries_OutsideRange_ShouldReturnEmptyList() {
+        // Given
+        ledgerService = new LedgerService(fixedClock());
+        Account account = ledgerService.createAccount("User Name");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+
+        // When
+        List<DailySummary> summaries = ledgerService.getDailySummaries(
+            account.id(), TODAY.plusDays(1), TODAY.plusDays(7));
+
+        // Then
+        assertTrue(summaries.isEmpty());
+    }
+
+    @Test
+    void getDailySummaries_WithInvalidAccountId_ShouldThrowException() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () ->
+            ledgerService.getDailySummaries("invalid-id", null, null));
+    }
+
+    @Test
+    void transferMoney_ShouldLinkLegsWithTransferId() {
+        // Given
+        Account fromAccount = ledgerService.createAccount("From User");
+        Account toAccount = ledgerService.createAccount("To User");
+        ledgerService.recordTransaction(fromAccount.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Initial deposit");
+
+        // When
+        List<Transaction> transactions = ledgerService.transferMoney(
+            fromAccount.id(), toAccount.id(), new BigDecimal("50.00"), "Transfer");
+
+        // Then
+        assertNotNull(transactions.get(0).transferId());
+        assertEquals(transactions.get(0).transferId(), transactions.get(1).transferId());
+        assertNull(ledgerService.getTransactionHistory(fromAccount.id()).get(0).transferId());
+    }
+
+    @Test
+    void snapshotAccount_ShouldReturnBalanceWithTransactionCount() {
+        // Given
+        Account account = ledgerService.createAccount("User Name");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("30.00"), Transaction.TransactionType.WITHDRAWAL, "Withdrawal");
+
+        // When
+        LedgerService.AccountSnapshot snapshot = ledgerService.snapshotAccount(account.id());
+
+        // Then
+        assertEquals(new BigDecimal("70.00"), snapshot.account().balance());
+        assertEquals(2, snapshot.transactionCount());
+    }
+
+    @Test
+    void getTransactionHistory_WithRange_ShouldReturnPage() {
+        // Given
+        Account account = ledgerService.createAccount("User Name");
+        for (int i = 1; i <= 5; i++) {
+            ledgerService.recordTransaction(account.id(), new BigDecimal(i), Transaction.TransactionType.DEPOSIT, "Deposit " + i);
+        }
+
+        // When
+        List<Transaction> page = ledgerService.getTransactionHistory(account.id(), 1, 3);
+
+        // Then
+        assertEquals(2, page.size());
+        assertEquals("Deposit 2", page.get(0).description());
+        assertEquals("Deposit 3", page.get(1).description());
+    }
+
+    @Test
+    void drainChangedAccounts_ShouldReturnWrittenAccountsOnce() {
+        // Given
+        Account written = ledgerService.createAccount("Written User");
+        ledgerService.createAccount("Idle User");
+        ledgerService.recordTransaction(written.id(), new BigDecimal("10.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+
+        // When
+        Set<String> first = ledgerService.drainChangedAccounts();
+        Set<String> second = ledgerService.drainChangedAccounts();
+
+        // Then
+        assertEquals(Set.of(written.id()), first);
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    void moveToColdTier_ShouldKeepHistoryReadableAcrossTiers() throws Exception {
+        // Given
+        Account account = ledgerService.createAccount("User Name");
+        for (int i = 1; i <= 20; i++) {
+            ledgerService.recordTransaction(account.id(), new BigDecimal(i), Transaction.TransactionType.DEPOSIT, "Deposit " + i);
+        }
+        List<Transaction> before = ledgerService.getTransactionHistory(account.id());
+
+        // When
+        int moved = ledgerService.moveToColdTier(
+            account.id(), LocalDateTime.now().minusDays(7), 5, 10, 1_000, new SegmentStore(segmentDirectory));
+        ledgerService.recordTransaction(account.id(), new BigDecimal("21"), Transaction.TransactionType.DEPOSIT, "Deposit 21");
+
+        // Then
+        assertEquals(15, moved);
+        List<Transaction> after = ledgerService.getTransactionHistory(account.id());
+        assertEquals(21, after.size());
+        assertEquals(before, after.subList(0, 20));
+        assertEquals(before.subList(13, 17), ledgerService.getTransactionHistory(account.id(), 13, 17));
+        assertEquals(21, ledgerService.snapshotAccount(account.id()).transactionCount());
+    }
+
+    @Test
+    void moveToColdTier_Repeatedly_ShouldMergeSmallSegments() throws Exception {
+        // Given
+        Account account = ledgerService.createAccount("User Name");
+        SegmentStore segmentStore = new SegmentStore(segmentDirectory);
+        List<Integer> segmentCounts = new ArrayList<>();
+
+        // When
+        for (int i = 1; i <= 8; i++) {
+            ledgerService.recordTransaction(account.id(), new BigDecimal(i), Transaction.TransactionType.DEPOSIT, "Deposit " + i);
+            ledgerService.moveToColdTier(account.id(), LocalDateTime.now().plusDays(1), 0, 1, 6, segmentStore);
+            try (Stream<Path> segments = Files.list(segmentDirectory.resolve(account.id()))) {
+                segmentCounts.add((int) segments.count());
+            }
+        }
+
+        // Then
+        assertEquals(List.of(1, 1, 2, 1, 2, 2, 3, 2), segmentCounts);
+        List<Transaction> history = ledgerService.getTransactionHistory(account.id());
+        assertEquals(8, history.size());
+        for (int i = 0; i < 8; i++) {
+            assertEquals("Deposit " + (i + 1), history.get(i).description());
+        }
+    }
+
+    @Test
+    void moveToColdTier_BelowMinimumBatch_ShouldKeepEverythingInMemory() throws Exception {
+        // Given
+        Account account = ledgerService.createAccount("User Name");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("1"), Transaction.TransactionType.DEPOSIT, "Deposit");
+
+        // When
+        int moved = ledgerService.moveToColdTier(
+            account.id(), LocalDateTime.now().plusDays(1), 0, 10, 1_000, new SegmentStore(segmentDirectory));
+
+        // Then
+        assertEquals(0, moved);
+        assertEquals(1, ledgerService.getTransactionHistory(account.id()).size());
+    }
+
+    @Test
+    void recordTransaction_WithHighContentionAccount_ShouldMergeConcurrentDeposits() throws Exception {
+        // Given
+        Account account = ledgerService.createAccount("Collector", true);
+        int threads = 8;
+        int depositsPerThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < depositsPerThread; i++) {
+                    ledgerService.recordTransaction(account.id(), new BigDecimal("1.50"), Transaction.TransactionType.DEPOSIT, "Payment");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertTrue(ledgerService.isHighContention(account.id()));
+        assertEquals(0, new BigDecimal("24000.00").compareTo(ledgerService.getBalance(account.id())));
+        assertEquals(threads * depositsPerThread, ledgerService.getTransactionHistory(account.id()).size());
+        assertEquals(threads * depositsPerThread,
+            ledgerService.getTransactionHistory(account.id()).stream().map(Transaction::id).distinct().count());
+        LedgerService.AccountSnapshot snapshot = ledgerService.snapshotAccount(account.id());
+        assertTrue(snapshot.settled());
+        assertEquals(threads * depositsPerThread, snapshot.transactionCount());
+        List<DailySummary> summaries = ledgerService.getDailySummaries(account.id(), null, null);
+        assertEquals(threads * depositsPerThread, summaries.stream().mapToLong(DailySummary::transactionCount).sum());
+    }
+
+    @Test
+    void randomTransactionId_ShouldBeVersion4Uuid() {
+        // When
+        UUID id = UUID.fromString(LedgerService.randomTransactionId());
+
+        // Then
+        assertEquals(4, id.version());
+        assertEquals(2, id.variant());
+        assertNotEquals(id.toString(), LedgerService.randomTransactionId());
+    }
+
+    @Test
+    void recordTransaction_WithdrawalFromHighContentionAccount_ShouldCheckMergedBalance() {
+        // Given
+        ledgerService = new LedgerService(fixedClock());
+        Account account = ledgerService.createAccount("Collector", true);
+        ledgerService.recordTransaction(account.id(), new BigDecimal("60.00"), Transaction.TransactionType.DEPOSIT, "Payment");
+        ledgerService.recordTransaction(account.id(), new BigDecimal("40.00"), Transaction.TransactionType.DEPOSIT, "Payment");
+
+        // When
+        ledgerService.recordTransaction(account.id(), new BigDecimal("90.00"), Transaction.TransactionType.WITHDRAWAL, "Payout");
+
+        // Then
+        assertEquals(0, new BigDecimal("10.00").compareTo(ledgerService.getBalance(account.id())));
+        assertThrows(IllegalArgumentException.class, () ->
+            ledgerService.recordTransaction(account.id(), new BigDecimal("10.01"), Transaction.TransactionType.WITHDRAWAL, "Payout"));
+        assertEquals(3, ledgerService.getTransactionHistory(account.id()).size());
+        List<DailySummary> summaries = ledgerService.getDailySummaries(account.id(), null, null);
+        assertEquals(1, summaries.size());
+        DailySummary today = summaries.get(0);
+        assertEquals(TODAY, today.date());
+        assertEquals(0, new BigDecimal("100.00").compareTo(today.totalDeposits()));
+        assertEquals(0, new BigDecimal("90.00").compareTo(today.totalWithdrawals()));
+    }
+
+    @Test
+    void recordTransaction_WithNonPositiveAmount_ShouldThrowException() {
+        // Given
+        Account account = ledgerService.createAccount("User Name");
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () ->
+            ledgerService.recordTransaction(account.id(), new BigDecimal("-5.00"), Transaction.TransactionType.DEPOSIT, "Deposit"));
+        assertEquals(0, ledgerService.getTransactionHistory(account.id()).size());
+    }
+
+    @Test
+    void importTransactions_ShouldKeepIdsAndSkipUncoveredWithdrawals() {
+        // Given
+        Account account = ledgerService.importAccount("acc-1", "User Name");
+        LocalDateTime day = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Transaction deposit = new Transaction("t1", "acc-1", new BigDecimal("50.00"),
+            Transaction.TransactionType.DEPOSIT, "Opening", day, null);
+        Transaction overdraft = new Transaction("t2", "acc-1", new BigDecimal("80.00"),
+            Transaction.TransactionType.WITHDRAWAL, "Rent", day.plusHours(1), null);
+        Transaction withdrawal = new Transaction("t3", "acc-1", new BigDecimal("20.00"),
+            Transaction.TransactionType.WITHDRAWAL, "Groceries", day.plusDays(1), null);
+
+        // When
+        List<Transaction> rejected = ledgerService.importTransactions(account.id(), List.of(deposit, overdraft, withdrawal));
+
+        // Then
+        assertEquals(List.of(overdraft), rejected);
+        assertEquals(0, new BigDecimal("30.00").compareTo(ledgerService.getBalance("acc-1")));
+        assertEquals(List.of("t1", "t3"), ledgerService.getTransactionHistory("acc-1").stream().map(Transaction::id).toList());
+        assertEquals(2, ledgerService.getDailySummaries("acc-1", null, null).size());
+        assertEquals(Set.of("acc-1"), ledgerService.drainChangedAccounts());
+    }
+
+    @Test
+    void importAccount_WithExistingOrInvalidId_ShouldThrowException() {
+        // Given
+        ledgerService.importAccount("acc-1", "User Name");
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.importAccount("acc-1", "Other Name"));
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.importAccount("acc 2", "Other Name"));
+        assertEquals("User Name", ledgerService.getAccount("acc-1").name());
+    }
+
+    // Just before midnight, where transactions stamped by the system clock could fall on two different days
+    private static Clock fixedClock() {
+        return Clock.fixed(TODAY.atTime(23, 59, 59).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    }
+}
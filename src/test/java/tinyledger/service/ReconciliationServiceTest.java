@@ -0,0 +1,150 @@
+package tinyledger.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tinyledger.model.Account;
+import tinyledger.model.ReconciliationBreak;
+import tinyledger.model.ReconciliationReport;
+import tinyledger.model.Transaction;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconciliationServiceTest {
+    private LedgerService ledgerService;
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService();
+        reconciliationService = new ReconciliationService(ledgerService, new SimpleMeterRegistry(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationService.shutdown();
+    }
+
+    @Test
+    void runFull_WithConsistentLedger_ShouldReportNoBreaks() {
+        // Given
+        Account from = ledgerService.createAccount("From User");
+        Account to = ledgerService.createAccount("To User");
+        ledgerService.recordTransaction(from.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        ledgerService.recordTransaction(from.id(), new BigDecimal("10.00"), Transaction.TransactionType.WITHDRAWAL, "Withdrawal");
+        ledgerService.transferMoney(from.id(), to.id(), new BigDecimal("30.00"), "Transfer");
+
+        // When
+        ReconciliationReport report = reconciliationService.runFull();
+
+        // Then
+        assertEquals(ReconciliationReport.Mode.FULL, report.mode());
+        assertEquals(2, report.accountsChecked());
+        assertEquals(4, report.transactionsChecked());
+        assertEquals(0, report.breakCount());
+        assertEquals(0, report.pendingTransfers());
+    }
+
+    @Test
+    void runIncremental_ShouldOnlyCheckNewTransactionsOfChangedAccounts() {
+        // Given
+        Account changed = ledgerService.createAccount("Changed User");
+        Account unchanged = ledgerService.createAccount("Unchanged User");
+        ledgerService.recordTransaction(changed.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        ledgerService.recordTransaction(unchanged.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        reconciliationService.runFull();
+        ledgerService.recordTransaction(changed.id(), new BigDecimal("5.00"), Transaction.TransactionType.WITHDRAWAL, "Withdrawal");
+
+        // When
+        ReconciliationReport report = reconciliationService.runIncremental();
+
+        // Then
+        assertEquals(ReconciliationReport.Mode.INCREMENTAL, report.mode());
+        assertEquals(1, report.accountsChecked());
+        assertEquals(1, report.transactionsChecked());
+        assertEquals(0, report.breakCount());
+    }
+
+    @Test
+    void runIncremental_ShouldMatchTransferLegsAcrossRuns() {
+        // Given
+        Account from = ledgerService.createAccount("From User");
+        Account to = ledgerService.createAccount("To User");
+        ledgerService.recordTransaction(from.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        reconciliationService.runFull();
+        ledgerService.transferMoney(from.id(), to.id(), new BigDecimal("40.00"), "Transfer");
+
+        // When
+        ReconciliationReport report = reconciliationService.runIncremental();
+
+        // Then
+        assertEquals(2, report.accountsChecked());
+        assertEquals(0, report.pendingTransfers());
+        assertEquals(0, report.breakCount());
+    }
+
+    @Test
+    void runFull_WithBalanceNotMatchingHistory_ShouldReportBreak() {
+        // Given
+        LedgerService corrupted = new LedgerService() {
+            @Override
+            public AccountSnapshot snapshotAccount(String accountId) {
+                AccountSnapshot snapshot = super.snapshotAccount(accountId);
+                return new AccountSnapshot(
+                    snapshot.account().withBalance(new BigDecimal("-1.00")), snapshot.transactionCount());
+            }
+        };
+        ReconciliationService service = new ReconciliationService(corrupted, new SimpleMeterRegistry(), 1);
+        Account account = corrupted.createAccount("User Name");
+        corrupted.recordTransaction(account.id(), new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+
+        // When
+        ReconciliationReport report = service.runFull();
+        service.shutdown();
+
+        // Then
+        assertEquals(2, report.breakCount());
+        assertTrue(report.breaks().stream().anyMatch(b -> b.type() == ReconciliationBreak.BreakType.BALANCE_MISMATCH));
+        assertTrue(report.breaks().stream().anyMatch(b -> b.type() == ReconciliationBreak.BreakType.NEGATIVE_BALANCE));
+    }
+
+    @Test
+    void getLastReport_BeforeAnyRun_ShouldBeEmpty() {
+        // When/Then
+        assertTrue(reconciliationService.getLastReport().isEmpty());
+        reconciliationService.runIncremental();
+        assertTrue(reconciliationService.getLastReport().isPresent());
+    }
+
+    @Test
+    void runIncremental_WhileDepositingToHighContentionAccount_ShouldNotReportBreaks() throws Exception {
+        // Given
+        Account collector = ledgerService.createAccount("Collector", true);
+        Account payer = ledgerService.createAccount("Payer");
+        ledgerService.recordTransaction(payer.id(), new BigDecimal("1000.00"), Transaction.TransactionType.DEPOSIT, "Deposit");
+        Thread depositor = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                ledgerService.recordTransaction(collector.id(), new BigDecimal("0.10"), Transaction.TransactionType.DEPOSIT, "Payment");
+            }
+        });
+
+        // When
+        depositor.start();
+        long breaks = 0;
+        while (depositor.isAlive()) {
+            // Each transfer's deposit leg lands on the collector, whose check may be deferred
+            ledgerService.transferMoney(payer.id(), collector.id(), new BigDecimal("0.01"), "Transfer");
+            breaks += reconciliationService.runIncremental().breakCount();
+        }
+        depositor.join();
+        ReconciliationReport last = reconciliationService.runIncremental();
+
+        // Then
+        assertEquals(0, breaks + last.breakCount());
+        assertEquals(0, last.pendingTransfers());
+        assertEquals(0, reconciliationService.runFull().breakCount());
+    }
+}
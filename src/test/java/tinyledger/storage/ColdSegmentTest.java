@@ -0,0 +1,130 @@
+package tinyledger.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tinyledger.model.Transaction;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColdSegmentTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_ThenRead_ShouldRoundTripAllFields() throws Exception {
+        // Given
+        List<Transaction> transactions = transactions(3);
+        transactions.set(1, new Transaction("tx-transfer", "account-1", new BigDecimal("12.345"),
+            Transaction.TransactionType.WITHDRAWAL, "Transfer to Jane: rent", LocalDateTime.of(2024, 1, 2, 3, 4, 5, 678_900_000),
+            "transfer-1"));
+
+        // When
+        ColdSegment segment = ColdSegment.write(directory.resolve("0.seg"), "account-1", transactions);
+        ColdSegment reopened = ColdSegment.open(segment.file(), "account-1");
+
+        // Then
+        assertEquals(3, reopened.size());
+        assertEquals(transactions, reopened.read(0, 3));
+    }
+
+    @Test
+    void write_ThenRead_WithAmountWiderThan255Bytes_ShouldRoundTrip() throws Exception {
+        // Given
+        List<Transaction> transactions = transactions(2);
+        transactions.set(0, new Transaction("tx-large", "account-1", new BigDecimal(BigInteger.TEN.pow(700), 2),
+            Transaction.TransactionType.DEPOSIT, "Large", LocalDateTime.of(2024, 1, 1, 0, 0)));
+
+        // When
+        ColdSegment segment = ColdSegment.write(directory.resolve("0.seg"), "account-1", transactions);
+        ColdSegment reopened = ColdSegment.open(segment.file(), "account-1");
+
+        // Then
+        assertEquals(transactions, reopened.read(0, 2));
+    }
+
+    @Test
+    void read_AcrossBlocks_ShouldReturnRequestedRange() throws Exception {
+        // Given
+        int count = ColdSegment.BLOCK_TRANSACTIONS * 3 + 7;
+        List<Transaction> transactions = transactions(count);
+        ColdSegment segment = ColdSegment.write(directory.resolve("0.seg"), "account-1", transactions);
+
+        // When
+        List<Transaction> range = segment.read(ColdSegment.BLOCK_TRANSACTIONS - 2, ColdSegment.BLOCK_TRANSACTIONS * 2 + 3);
+
+        // Then
+        assertEquals(transactions.subList(ColdSegment.BLOCK_TRANSACTIONS - 2, ColdSegment.BLOCK_TRANSACTIONS * 2 + 3), range);
+        assertEquals(transactions.subList(count - 7, count), segment.read(count - 7, count + 100));
+        assertTrue(segment.read(count, count + 1).isEmpty());
+    }
+
+    @Test
+    void open_WithIndexOffsetOutsideFile_ShouldReject() throws Exception {
+        // Given
+        ColdSegment segment = ColdSegment.write(directory.resolve("0.seg"), "account-1", transactions(3));
+        byte[] bytes = Files.readAllBytes(segment.file());
+        ByteBuffer.wrap(bytes).putLong(bytes.length - Long.BYTES - Integer.BYTES, 1L << 40);
+        Files.write(segment.file(), bytes);
+
+        // When/Then
+        assertThrows(IOException.class, () -> ColdSegment.open(segment.file(), "account-1"));
+    }
+
+    @Test
+    void transactionHistory_ShouldReadAcrossColdAndHotTiers() throws Exception {
+        // Given
+        List<Transaction> transactions = transactions(10);
+        TransactionHistory history = new TransactionHistory();
+        transactions.forEach(history::append);
+        SegmentStore store = new SegmentStore(directory);
+
+        // When
+        List<Transaction> candidates = history.coldCandidates(LocalDateTime.MIN, 4);
+        history.promote(store.write("account-1", history.coldSize(), candidates));
+
+        // Then
+        assertEquals(6, candidates.size());
+        assertEquals(6, history.coldSize());
+        assertEquals(10, history.size());
+        assertEquals(transactions, history.readAll());
+        assertEquals(transactions.subList(4, 8), history.read(4, 8));
+    }
+
+    @Test
+    void transactionHistory_WithStripes_ShouldMergeBufferedAppendsOnRead() {
+        // Given
+        List<Transaction> transactions = transactions(4);
+        TransactionHistory history = new TransactionHistory(4);
+
+        // When
+        history.appendToStripe(1, transactions.get(1));
+        history.appendToStripe(0, transactions.get(0));
+        history.appendToStripe(1, transactions.get(2));
+        history.append(transactions.get(3));
+
+        // Then
+        assertEquals(4, history.size());
+        assertEquals(transactions, history.readAll());
+    }
+
+    private static List<Transaction> transactions(int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction("tx-" + i, "account-1", new BigDecimal(i + ".50"),
+                i % 3 == 0 ? Transaction.TransactionType.WITHDRAWAL : Transaction.TransactionType.DEPOSIT,
+                "Transaction " + i, start.plusMinutes(i)));
+        }
+        return transactions;
+    }
+}